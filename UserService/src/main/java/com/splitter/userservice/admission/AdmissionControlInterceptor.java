@@ -0,0 +1,101 @@
+package com.splitter.userservice.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitter.userservice.model.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admits requests to {@link Bulkhead} handler methods only while their pool is below its
+ * adaptive limit and rejects the rest right away with 503 and {@code Retry-After}.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".admitted";
+    private static final String START_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".start";
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new HashMap<>();
+    private final Map<String, Counter> rejectedCounters = new HashMap<>();
+    private final String retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionControlInterceptor(AdmissionControlProperties properties, ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry) {
+        this.retryAfterSeconds = Long.toString(Math.max(1, properties.getRetryAfter().getSeconds()));
+        this.objectMapper = objectMapper;
+        properties.getBulkheads().forEach((name, bulkhead) -> {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(bulkhead.getInitialLimit(),
+                    bulkhead.getMinLimit(), bulkhead.getMaxLimit(), bulkhead.getLatencyThreshold(),
+                    bulkhead.getBackoffRatio());
+            limits.put(name, limit);
+            rejectedCounters.put(name, meterRegistry.counter("userservice.admission.rejected", "bulkhead", name));
+            Gauge.builder("userservice.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+            Gauge.builder("userservice.admission.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        String name = bulkheadName(handler);
+        AdaptiveConcurrencyLimit limit = name == null ? null : limits.get(name);
+        if (limit == null) {
+            return true;
+        }
+        if (!limit.tryAcquire()) {
+            rejectedCounters.get(name).increment();
+            reject(response);
+            return false;
+        }
+        request.setAttribute(ADMITTED_ATTRIBUTE, limit);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AdaptiveConcurrencyLimit limit = (AdaptiveConcurrencyLimit) request.getAttribute(ADMITTED_ATTRIBUTE);
+        if (limit != null) {
+            request.removeAttribute(ADMITTED_ATTRIBUTE);
+            limit.release(System.nanoTime() - (Long) request.getAttribute(START_ATTRIBUTE));
+        }
+    }
+
+    AdaptiveConcurrencyLimit getLimit(String name) {
+        return limits.get(name);
+    }
+
+    private String bulkheadName(Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return null;
+        }
+        Bulkhead bulkhead = ((HandlerMethod) handler).getMethodAnnotation(Bulkhead.class);
+        return bulkhead == null ? null : bulkhead.value();
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder()
+                .message("Service is overloaded, retry later.")
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+}
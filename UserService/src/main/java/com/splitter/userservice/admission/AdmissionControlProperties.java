@@ -0,0 +1,44 @@
+package com.splitter.userservice.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "userservice.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled;
+    private Duration retryAfter = Duration.ofSeconds(1);
+    private Map<String, BulkheadProperties> bulkheads = new HashMap<>();
+
+    public AdmissionControlProperties() {
+        bulkheads.put("lookup", new BulkheadProperties(100, 10, 400, Duration.ofMillis(50)));
+        bulkheads.put("list", new BulkheadProperties(4, 1, 20, Duration.ofMillis(500)));
+        bulkheads.put("write", new BulkheadProperties(20, 2, 100, Duration.ofMillis(200)));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkheadProperties {
+
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 100;
+        private Duration latencyThreshold = Duration.ofMillis(200);
+        private double backoffRatio = 0.9;
+
+        public BulkheadProperties(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.splitter.userservice.bulk;
+
+public enum BulkFormat {
+
+    CSV("csv"),
+    NDJSON("ndjson");
+
+    private final String extension;
+
+    BulkFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,18 @@
+package com.splitter.userservice.bulk;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+@Data
+@ConfigurationProperties(prefix = "userservice.bulk")
+public class BulkProperties {
+
+    private boolean enabled;
+    private Path directory = Paths.get("bulk");
+    private int fetchSize = 1_000;
+    private int writeBufferSize = 1 << 16;
+    private long progressInterval = 100_000;
+}
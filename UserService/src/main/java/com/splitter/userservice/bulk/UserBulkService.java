@@ -0,0 +1,356 @@
+package com.splitter.userservice.bulk;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.splitter.userservice.exception.ResourceNotFoundException;
+import com.splitter.userservice.model.BulkJobResult;
+import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.statistics.UserStatisticsInitializer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams the users table to CSV or NDJSON files through a forward-only cursor, and loads
+ * CSV files through H2's {@code CSVREAD}: the staged rows are validated in one pass and the
+ * valid ones inserted with set-wise, case-insensitive uniqueness checks.
+ */
+@Slf4j
+public class UserBulkService {
+
+    private static final String EXPORT_SQL = "SELECT ID, USERNAME, EMAIL, FIRST_NAME, LAST_NAME, DATE_OF_BIRTH, CREATED_AT "
+            + "FROM USERS ORDER BY ID";
+    private static final String CSV_HEADER = "ID,USERNAME,EMAIL,FIRST_NAME,LAST_NAME,DATE_OF_BIRTH,CREATED_AT";
+    private static final String IMPORT_INSERT_SQL = "INSERT INTO USERS "
+            + "(USERNAME, USERNAME_KEY, EMAIL, EMAIL_KEY, EMAIL_DOMAIN, FIRST_NAME, LAST_NAME, DATE_OF_BIRTH, CREATED_AT, VERSION) "
+            + "SELECT i.USERNAME, i.USERNAME_KEY, i.EMAIL, i.EMAIL_KEY, LOWER(SUBSTRING(i.EMAIL, LOCATE('@', i.EMAIL, -1) + 1)), "
+            + "i.FIRST_NAME, i.LAST_NAME, CAST(NULLIF(TRIM(i.DATE_OF_BIRTH), '') AS DATE), "
+            + "COALESCE(CAST(NULLIF(TRIM(i.CREATED_AT), '') AS TIMESTAMP), CURRENT_TIMESTAMP), 0 "
+            + "FROM USERS_IMPORT i "
+            + "WHERE NOT i.REJECTED "
+            + "AND NOT EXISTS (SELECT 1 FROM USERS u WHERE u.USERNAME_KEY = i.USERNAME_KEY) "
+            + "AND NOT EXISTS (SELECT 1 FROM USERS u WHERE u.EMAIL_KEY = i.EMAIL_KEY) "
+            + "AND i.USERNAME_KEY IN (SELECT USERNAME_KEY FROM USERS_IMPORT WHERE NOT REJECTED "
+            + "GROUP BY USERNAME_KEY HAVING COUNT(*) = 1) "
+            + "AND i.EMAIL_KEY IN (SELECT EMAIL_KEY FROM USERS_IMPORT WHERE NOT REJECTED "
+            + "GROUP BY EMAIL_KEY HAVING COUNT(*) = 1)";
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+    private static final Map<String, String> IMPORT_FIELD_DESCRIPTIONS = new HashMap<>();
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    static {
+        IMPORT_FIELD_DESCRIPTIONS.put("email", "Email");
+        IMPORT_FIELD_DESCRIPTIONS.put("dateOfBirth", "Date of birth");
+    }
+
+    private JdbcTemplate jdbcTemplate;
+    private UserStatisticsInitializer userStatisticsInitializer;
+    private Validator validator;
+    private BulkProperties properties;
+    private JsonFactory jsonFactory = new JsonFactory();
+
+    public UserBulkService(JdbcTemplate jdbcTemplate, UserStatisticsInitializer userStatisticsInitializer,
+                           Validator validator, BulkProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userStatisticsInitializer = userStatisticsInitializer;
+        this.validator = validator;
+        this.properties = properties;
+    }
+
+    @Transactional(readOnly = true)
+    public BulkJobResult export(BulkFormat format) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(properties.getDirectory());
+        Path file = properties.getDirectory()
+                .resolve("users-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "." + format.getExtension());
+
+        long rows;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8),
+                properties.getWriteBufferSize())) {
+            RowWriter rowWriter = format == BulkFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+            ExportProgress progress = new ExportProgress(rowWriter, file);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(properties.getFetchSize());
+                return statement;
+            }, progress);
+            rowWriter.finish();
+            rows = progress.rows;
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Exported {} users to {} in {} ms.", rows, file, durationMillis);
+        return BulkJobResult.builder()
+                .file(file.getFileName().toString())
+                .rowsRead(rows)
+                .rowsWritten(rows)
+                .durationMillis(durationMillis)
+                .build();
+    }
+
+    /**
+     * Loads a CSV file with the export header from the bulk directory. Rows breaking the rules
+     * {@link UserDto} enforces on the API, or lacking a username, email, first or last name, are
+     * rejected. Rows whose username or email is already taken, or appears more than once in the
+     * file, ignoring case, are skipped.
+     */
+    @Transactional
+    public BulkJobResult importCsv(String fileName) throws IOException {
+        long start = System.nanoTime();
+        Path directory = properties.getDirectory().toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("File " + fileName + " does not exist.");
+        }
+
+        jdbcTemplate.execute("CREATE LOCAL TEMPORARY TABLE USERS_IMPORT (IMPORT_ROW BIGINT PRIMARY KEY, "
+                + "USERNAME VARCHAR, USERNAME_KEY VARCHAR, EMAIL VARCHAR, EMAIL_KEY VARCHAR, FIRST_NAME VARCHAR, "
+                + "LAST_NAME VARCHAR, DATE_OF_BIRTH VARCHAR, CREATED_AT VARCHAR, REJECTED BOOLEAN) TRANSACTIONAL");
+        try {
+            long staged = jdbcTemplate.update("INSERT INTO USERS_IMPORT SELECT ROWNUM(), c.USERNAME, LOWER(c.USERNAME), "
+                    + "c.EMAIL, LOWER(c.EMAIL), c.FIRST_NAME, c.LAST_NAME, c.DATE_OF_BIRTH, c.CREATED_AT, FALSE FROM CSVREAD('"
+                    + file.toString().replace("'", "''") + "', NULL, 'charset=UTF-8') c");
+            log.info("Staged {} users from {}.", staged, file);
+            ImportValidation validation = new ImportValidation();
+            jdbcTemplate.query("SELECT IMPORT_ROW, USERNAME, EMAIL, FIRST_NAME, LAST_NAME, DATE_OF_BIRTH, CREATED_AT "
+                    + "FROM USERS_IMPORT ORDER BY IMPORT_ROW", validation);
+            jdbcTemplate.batchUpdate("UPDATE USERS_IMPORT SET REJECTED = TRUE WHERE IMPORT_ROW = ?", validation.rejectedRows);
+            long inserted = jdbcTemplate.update(IMPORT_INSERT_SQL);
+            long rejected = validation.rejectedRows.size();
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("Imported {} of {} users from {} in {} ms, {} rejected.", inserted, staged, file, durationMillis, rejected);
+            // aggregating inside this transaction would count the imported rows even if it rolls back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    userStatisticsInitializer.rebuild();
+                }
+            });
+            return BulkJobResult.builder()
+                    .file(file.getFileName().toString())
+                    .rowsRead(staged)
+                    .rowsWritten(inserted)
+                    .rowsRejected(rejected)
+                    .rowsSkipped(staged - rejected - inserted)
+                    .rejections(validation.rejections)
+                    .durationMillis(durationMillis)
+                    .build();
+        } finally {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS USERS_IMPORT");
+        }
+    }
+
+    /**
+     * Checks every staged row against the constraints of {@link UserDto}, and that the values
+     * the insert casts can be parsed, so that one bad row cannot abort the whole import.
+     */
+    private final class ImportValidation implements RowCallbackHandler {
+
+        private final List<Object[]> rejectedRows = new ArrayList<>();
+        private final List<String> rejections = new ArrayList<>();
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            String rejection = rejectionOf(resultSet.getString(2), resultSet.getString(3), resultSet.getString(4),
+                    resultSet.getString(5), resultSet.getString(6), resultSet.getString(7));
+            if (rejection != null) {
+                long row = resultSet.getLong(1);
+                rejectedRows.add(new Object[]{row});
+                if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                    rejections.add("Row " + row + ": " + rejection);
+                }
+            }
+        }
+
+        private String rejectionOf(String username, String email, String firstName, String lastName,
+                                   String dateOfBirth, String createdAt) {
+            if (isBlank(username)) {
+                return "Username is missing.";
+            }
+            if (isBlank(email)) {
+                return "Email is missing.";
+            }
+            if (isBlank(firstName)) {
+                return "First name is missing.";
+            }
+            if (isBlank(lastName)) {
+                return "Last name is missing.";
+            }
+            UserDto user = UserDto.builder()
+                    .username(username)
+                    .email(email)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .build();
+            if (!isBlank(dateOfBirth)) {
+                try {
+                    user.setDateOfBirth(LocalDate.parse(dateOfBirth.trim()));
+                } catch (DateTimeParseException ex) {
+                    return "Date of birth " + dateOfBirth + " is invalid.";
+                }
+            }
+            if (!isBlank(createdAt)) {
+                try {
+                    Timestamp.valueOf(createdAt.trim());
+                } catch (IllegalArgumentException ex) {
+                    return "Creation time " + createdAt + " is invalid.";
+                }
+            }
+            for (ConstraintViolation<UserDto> violation : validator.validate(user)) {
+                String field = violation.getPropertyPath().toString();
+                return IMPORT_FIELD_DESCRIPTIONS.getOrDefault(field, field) + " " + violation.getInvalidValue() + " is invalid.";
+            }
+            return null;
+        }
+
+        private boolean isBlank(String value) {
+            return value == null || value.trim().isEmpty();
+        }
+    }
+
+    private final class ExportProgress implements RowCallbackHandler {
+
+        private final RowWriter rowWriter;
+        private final Path file;
+        private long rows;
+
+        private ExportProgress(RowWriter rowWriter, Path file) {
+            this.rowWriter = rowWriter;
+            this.file = file;
+        }
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            try {
+                rowWriter.write(resultSet);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            if (++rows % properties.getProgressInterval() == 0) {
+                log.info("Exported {} users to {}.", rows, file);
+            }
+        }
+    }
+
+    private interface RowWriter {
+
+        void write(ResultSet resultSet) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            writer.write(Long.toString(resultSet.getLong(1)));
+            for (int column = 2; column <= 5; column++) {
+                writer.write(',');
+                writeQuoted(resultSet.getString(column));
+            }
+            writer.write(',');
+            writeNullable(resultSet.getDate(6));
+            writer.write(',');
+            writeNullable(resultSet.getTimestamp(7));
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeQuoted(String value) throws IOException {
+            if (value != null) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+
+        private void writeNullable(Object value) throws IOException {
+            if (value != null) {
+                writer.write(value.toString());
+            }
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = jsonFactory.createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet resultSet) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", resultSet.getLong(1));
+            writeStringField("username", resultSet.getString(2));
+            writeStringField("email", resultSet.getString(3));
+            writeStringField("firstName", resultSet.getString(4));
+            writeStringField("lastName", resultSet.getString(5));
+            Date dateOfBirth = resultSet.getDate(6);
+            writeStringField("dateOfBirth", dateOfBirth == null ? null : dateOfBirth.toString());
+            Timestamp createdAt = resultSet.getTimestamp(7);
+            writeStringField("createdAt", createdAt == null ? null : createdAt.toLocalDateTime().toString());
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+
+        private void writeStringField(String name, String value) throws IOException {
+            if (value != null) {
+                generator.writeStringField(name, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.splitter.userservice.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts the ids of changed users to the near caches of every instance. Register a
+ * bean of this type backed by a message broker to invalidate across the fleet,
+ * otherwise {@link InProcessCacheInvalidationBus} is used.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(Long userId);
+
+    void subscribe(Consumer<Long> listener);
+}
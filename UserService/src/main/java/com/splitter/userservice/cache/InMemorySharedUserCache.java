@@ -0,0 +1,58 @@
+package com.splitter.userservice.cache;
+
+import com.splitter.userservice.model.UserDto;
+
+import java.time.Duration;
+
+/**
+ * Process-local stand-in for the shared tier, used for a single instance and in tests.
+ */
+public class InMemorySharedUserCache implements SharedUserCache {
+
+    private final ExpiringCache<Long, Slot> entries;
+
+    public InMemorySharedUserCache(Duration timeToLive, int maxEntries) {
+        this.entries = new ExpiringCache<>(timeToLive, maxEntries);
+    }
+
+    @Override
+    public UserDto get(Long id) {
+        Slot slot = entries.get(id);
+        return slot == null ? null : slot.user;
+    }
+
+    @Override
+    public synchronized boolean putIfNewer(UserDto user) {
+        long version = versionOf(user);
+        Slot slot = entries.get(user.getId());
+        if (slot != null && (version < slot.minVersion || (slot.user != null && version < versionOf(slot.user)))) {
+            return false;
+        }
+        entries.put(user.getId(), new Slot(user, slot == null ? version : Math.max(version, slot.minVersion)));
+        return true;
+    }
+
+    @Override
+    public synchronized void invalidate(Long id, long minVersion) {
+        Slot slot = entries.get(id);
+        if (slot == null && minVersion == 0) {
+            return;
+        }
+        entries.put(id, new Slot(null, slot == null ? minVersion : Math.max(minVersion, slot.minVersion)));
+    }
+
+    private static long versionOf(UserDto user) {
+        return user.getVersion() == null ? 0 : user.getVersion();
+    }
+
+    private static final class Slot {
+
+        private final UserDto user;
+        private final long minVersion;
+
+        private Slot(UserDto user, long minVersion) {
+            this.user = user;
+            this.minVersion = minVersion;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.splitter.userservice.cache;
+
+import com.splitter.userservice.model.UserDto;
+
+/**
+ * Cache tier shared by every instance of the service. Register a bean of this type
+ * backed by a networked store to share entries across the fleet, otherwise
+ * {@link InMemorySharedUserCache} is used.
+ * <p>
+ * Implementations must make {@link #putIfNewer(UserDto)} and {@link #invalidate(Long, long)}
+ * atomic per id, e.g. with a compare-and-set script, so that a copy loaded before a write
+ * cannot replace the invalidation of that write. They also own the time to live of their
+ * entries, which bounds how long a write whose invalidation never ran stays invisible.
+ */
+public interface SharedUserCache {
+
+    UserDto get(Long id);
+
+    /**
+     * Stores {@code user} unless the tier holds a newer version of it or has been invalidated
+     * for a newer version.
+     *
+     * @return whether the user has been stored
+     */
+    boolean putIfNewer(UserDto user);
+
+    /**
+     * Evicts the user and rejects later puts of versions older than {@code minVersion}.
+     */
+    void invalidate(Long id, long minVersion);
+}
@@ -0,0 +1,62 @@
+package com.splitter.userservice.cache;
+
+import com.splitter.userservice.model.UserDto;
+
+/**
+ * Local near-cache in front of the {@link SharedUserCache}. Writes invalidate the shared
+ * tier for the written version, evict the near copy and broadcast the id on the
+ * {@link CacheInvalidationBus} so that other instances drop their near copies.
+ * <p>
+ * Loads are only cached if the shared tier accepts their version, so a copy read before a
+ * concurrent write is dropped. A near copy can still outlive a write by up to the near-cache
+ * time to live, when the broadcast is lost or races with a load on the same instance. A
+ * write whose invalidation never runs, e.g. because the instance dies right after the
+ * commit, is visible once the shared tier expires the entry.
+ */
+public class TwoTierUserCache {
+
+    private final ExpiringCache<Long, UserDto> nearCache;
+    private final SharedUserCache sharedCache;
+    private final CacheInvalidationBus invalidationBus;
+
+    public TwoTierUserCache(ExpiringCache<Long, UserDto> nearCache, SharedUserCache sharedCache,
+                            CacheInvalidationBus invalidationBus) {
+        this.nearCache = nearCache;
+        this.sharedCache = sharedCache;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(nearCache::evict);
+    }
+
+    public UserDto get(Long id) {
+        UserDto user = nearCache.get(id);
+        if (user == null) {
+            user = sharedCache.get(id);
+            if (user != null) {
+                nearCache.put(id, user);
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Caches a freshly loaded user unless a newer version has been written meanwhile.
+     */
+    public void put(UserDto user) {
+        if (sharedCache.putIfNewer(user)) {
+            nearCache.put(user.getId(), user);
+        }
+    }
+
+    public void invalidate(Long id) {
+        invalidate(id, 0);
+    }
+
+    /**
+     * Invalidates the user after {@code version} of it has been written.
+     */
+    public void invalidate(Long id, long version) {
+        sharedCache.invalidate(id, version);
+        nearCache.evict(id);
+        invalidationBus.publish(id);
+    }
+}
@@ -0,0 +1,32 @@
+package com.splitter.userservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitter.userservice.admission.AdmissionControlInterceptor;
+import com.splitter.userservice.admission.AdmissionControlProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+@ConditionalOnProperty(prefix = "userservice.admission", name = "enabled", havingValue = "true")
+public class AdmissionControlConfiguration implements WebMvcConfigurer {
+
+    private AdmissionControlInterceptor admissionControlInterceptor;
+
+    public AdmissionControlConfiguration(AdmissionControlProperties properties, ObjectMapper objectMapper,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        this.admissionControlInterceptor = new AdmissionControlInterceptor(properties, objectMapper,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor);
+    }
+}
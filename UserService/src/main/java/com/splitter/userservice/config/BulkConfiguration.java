@@ -0,0 +1,24 @@
+package com.splitter.userservice.config;
+
+import com.splitter.userservice.bulk.BulkProperties;
+import com.splitter.userservice.bulk.UserBulkService;
+import com.splitter.userservice.statistics.UserStatisticsInitializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.validation.Validator;
+
+@Configuration
+@EnableConfigurationProperties(BulkProperties.class)
+@ConditionalOnProperty(prefix = "userservice.bulk", name = "enabled", havingValue = "true")
+public class BulkConfiguration {
+
+    @Bean
+    public UserBulkService userBulkService(JdbcTemplate jdbcTemplate, UserStatisticsInitializer userStatisticsInitializer,
+                                           Validator validator, BulkProperties properties) {
+        return new UserBulkService(jdbcTemplate, userStatisticsInitializer, validator, properties);
+    }
+}
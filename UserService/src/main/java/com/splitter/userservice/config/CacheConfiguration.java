@@ -0,0 +1,44 @@
+package com.splitter.userservice.config;
+
+import com.splitter.userservice.cache.CacheInvalidationBus;
+import com.splitter.userservice.cache.ExpiringCache;
+import com.splitter.userservice.cache.InMemorySharedUserCache;
+import com.splitter.userservice.cache.InProcessCacheInvalidationBus;
+import com.splitter.userservice.cache.SharedUserCache;
+import com.splitter.userservice.cache.TwoTierUserCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+@ConditionalOnProperty(prefix = "userservice.cache", name = "enabled", havingValue = "true")
+public class CacheConfiguration {
+
+    @Bean
+    public TwoTierUserCache twoTierUserCache(CacheProperties properties,
+                                             ObjectProvider<SharedUserCache> sharedUserCache,
+                                             ObjectProvider<CacheInvalidationBus> cacheInvalidationBus) {
+        SharedUserCache sharedCache = sharedUserCache.getIfAvailable();
+        CacheInvalidationBus invalidationBus = cacheInvalidationBus.getIfAvailable();
+        if (sharedCache == null || invalidationBus == null) {
+            // writes on other instances are neither seen by a per-JVM shared tier nor broadcast
+            // to it, so it must not keep entries longer than the near cache
+            log.warn("No shared user cache or invalidation bus is configured, users cached by this instance"
+                    + " may be up to {} behind writes on other instances", properties.getNearTimeToLive());
+        }
+        if (sharedCache == null) {
+            sharedCache = new InMemorySharedUserCache(properties.getNearTimeToLive(), properties.getSharedMaxEntries());
+        }
+        if (invalidationBus == null) {
+            invalidationBus = new InProcessCacheInvalidationBus();
+        }
+        return new TwoTierUserCache(
+                new ExpiringCache<>(properties.getNearTimeToLive(), properties.getNearMaxEntries()),
+                sharedCache, invalidationBus);
+    }
+}
@@ -0,0 +1,22 @@
+package com.splitter.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "userservice.cache")
+public class CacheProperties {
+
+    private boolean enabled;
+    /**
+     * Upper bound on how long a user read on this instance can lag behind a write.
+     */
+    private Duration nearTimeToLive = Duration.ofSeconds(5);
+    private int nearMaxEntries = 10_000;
+    /**
+     * Size of the in-process shared tier, which expires entries after the near time to live.
+     */
+    private int sharedMaxEntries = 100_000;
+}
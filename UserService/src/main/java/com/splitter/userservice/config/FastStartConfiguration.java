@@ -0,0 +1,48 @@
+package com.splitter.userservice.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerAdapter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * Limits the lazy initialization of the faststart profile to beans that are not on the request path:
+ * application beans, the datasource, JPA and the MVC infrastructure are still created at startup, so
+ * wiring failures stop the boot and the first request does not pay for them.
+ */
+@Configuration
+@Profile("faststart")
+public class FastStartConfiguration {
+
+    private static final String APPLICATION_PACKAGE = "com.splitter.userservice.";
+
+    private static final Class<?>[] EAGER_TYPES = {
+            DataSource.class, EntityManagerFactory.class, DispatcherServlet.class,
+            HandlerMapping.class, HandlerAdapter.class, HttpMessageConverter.class
+    };
+
+    @Bean
+    public static LazyInitializationExcludeFilter requestPathLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> {
+            if (beanType == null) {
+                return false;
+            }
+            if (beanType.getName().startsWith(APPLICATION_PACKAGE)) {
+                return true;
+            }
+            for (Class<?> eagerType : EAGER_TYPES) {
+                if (eagerType.isAssignableFrom(beanType)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.splitter.userservice.config;
+
+import com.splitter.userservice.resilience.DatabaseLatencyInjector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "userservice.resilience.latency-injection", name = "enabled", havingValue = "true")
+public class LatencyInjectionConfiguration {
+
+    @Bean
+    public static DatabaseLatencyInjector databaseLatencyInjector() {
+        return new DatabaseLatencyInjector();
+    }
+}
@@ -0,0 +1,28 @@
+package com.splitter.userservice.config;
+
+import com.splitter.userservice.diagnostics.SqlStatementRecorder;
+import com.splitter.userservice.resilience.CircuitBreaker;
+import com.splitter.userservice.resilience.ResilienceProperties;
+import com.splitter.userservice.resilience.ResilientUserService;
+import com.splitter.userservice.service.UserServiceImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+@ConditionalOnProperty(prefix = "userservice.resilience", name = "enabled", havingValue = "true")
+public class ResilienceConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ResilientUserService resilientUserService(UserServiceImpl userServiceImpl, ResilienceProperties properties,
+                                                     ObjectProvider<SqlStatementRecorder> sqlStatementRecorder) {
+        SqlStatementRecorder recorder = sqlStatementRecorder.getIfAvailable();
+        return new ResilientUserService(userServiceImpl,
+                new CircuitBreaker(properties.getFailureThreshold(), properties.getOpenDuration()),
+                new CircuitBreaker(properties.getFailureThreshold(), properties.getOpenDuration()), properties,
+                recorder == null ? task -> task : recorder::propagate);
+    }
+}
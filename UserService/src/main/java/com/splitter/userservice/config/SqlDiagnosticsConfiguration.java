@@ -0,0 +1,54 @@
+package com.splitter.userservice.config;
+
+import com.splitter.userservice.diagnostics.HibernateSessionMetrics;
+import com.splitter.userservice.diagnostics.SqlDataSourceBeanPostProcessor;
+import com.splitter.userservice.diagnostics.SqlDiagnosticsFilter;
+import com.splitter.userservice.diagnostics.SqlDiagnosticsProperties;
+import com.splitter.userservice.diagnostics.SqlStatementRecorder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Opt-in SQL profiling, enabled with {@code userservice.diagnostics.sql.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = SqlDiagnosticsProperties.PREFIX, name = "enabled", havingValue = "true")
+public class SqlDiagnosticsConfiguration {
+
+    @Bean
+    public static SqlStatementRecorder sqlStatementRecorder(Environment environment) {
+        SqlStatementRecorder recorder = new SqlStatementRecorder(properties(environment).getSlowStatementThreshold());
+        HibernateSessionMetrics.install(recorder);
+        return recorder;
+    }
+
+    @Bean
+    public static SqlDataSourceBeanPostProcessor sqlDataSourceBeanPostProcessor(SqlStatementRecorder sqlStatementRecorder) {
+        return new SqlDataSourceBeanPostProcessor(sqlStatementRecorder);
+    }
+
+    @Bean
+    public SqlDiagnosticsFilter sqlDiagnosticsFilter(SqlStatementRecorder sqlStatementRecorder, Environment environment) {
+        return new SqlDiagnosticsFilter(sqlStatementRecorder, properties(environment).getMaxStatementsPerRequest());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sessionStatisticsCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put("hibernate.generate_statistics", "true");
+            // per-session INFO lines follow generate_statistics by default; the request line replaces them
+            hibernateProperties.put("hibernate.session.events.log", "false");
+            hibernateProperties.put("hibernate.session.events.auto", HibernateSessionMetrics.class.getName());
+        };
+    }
+
+    private static SqlDiagnosticsProperties properties(Environment environment) {
+        return Binder.get(environment)
+                .bind(SqlDiagnosticsProperties.PREFIX, SqlDiagnosticsProperties.class)
+                .orElseGet(SqlDiagnosticsProperties::new);
+    }
+}
@@ -0,0 +1,13 @@
+package com.splitter.userservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the periodic rebuild of the per-instance user statistics, see
+ * {@code userservice.statistics.rebuild-interval}.
+ */
+@Configuration
+@EnableScheduling
+public class StatisticsConfiguration {
+}
@@ -0,0 +1,32 @@
+package com.splitter.userservice.config;
+
+import com.splitter.userservice.cache.TwoTierUserCache;
+import com.splitter.userservice.resilience.ResilientUserService;
+import com.splitter.userservice.service.CachingUserService;
+import com.splitter.userservice.service.UserService;
+import com.splitter.userservice.service.UserServiceImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class UserServiceConfiguration {
+
+    @Bean
+    @Primary
+    public UserService userService(UserServiceImpl userServiceImpl,
+                                   ObjectProvider<ResilientUserService> resilientUserService,
+                                   ObjectProvider<TwoTierUserCache> userCache) {
+        UserService userService = userServiceImpl;
+        ResilientUserService resilient = resilientUserService.getIfAvailable();
+        if (resilient != null) {
+            userService = resilient;
+        }
+        TwoTierUserCache cache = userCache.getIfAvailable();
+        if (cache != null) {
+            userService = new CachingUserService(userService, cache);
+        }
+        return userService;
+    }
+}
@@ -1,19 +1,31 @@
 package com.splitter.userservice.controller;
 
+import com.splitter.userservice.exception.DatabaseUnavailableException;
+import com.splitter.userservice.exception.InvalidRequestException;
 import com.splitter.userservice.exception.RecordConflictException;
 import com.splitter.userservice.exception.ResourceNotFoundException;
+import com.splitter.userservice.exception.ServiceBusyException;
+import com.splitter.userservice.exception.StaleRecordException;
 import com.splitter.userservice.model.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -22,17 +34,49 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private static final Duration LOG_SAMPLING_INTERVAL = Duration.ofSeconds(10);
+
     private Map<String, String> fieldDescriptions;
 
-    public GlobalExceptionHandler() {
+    private Counter notFoundCounter;
+    private Counter conflictCounter;
+    private Counter staleRecordCounter;
+    private Counter unavailableCounter;
+    private Counter busyCounter;
+    private Counter invalidRequestCounter;
+    private Counter invalidParameterCounter;
+    private LogSampler notFoundLogSampler = new LogSampler(LOG_SAMPLING_INTERVAL);
+    private LogSampler conflictLogSampler = new LogSampler(LOG_SAMPLING_INTERVAL);
+    private LogSampler staleRecordLogSampler = new LogSampler(LOG_SAMPLING_INTERVAL);
+    private LogSampler unavailableLogSampler = new LogSampler(LOG_SAMPLING_INTERVAL);
+    private LogSampler busyLogSampler = new LogSampler(LOG_SAMPLING_INTERVAL);
+    private LogSampler invalidRequestLogSampler = new LogSampler(LOG_SAMPLING_INTERVAL);
+    private LogSampler invalidParameterLogSampler = new LogSampler(LOG_SAMPLING_INTERVAL);
+
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.notFoundCounter = registry.counter("userservice.errors", "type", "not_found");
+        this.conflictCounter = registry.counter("userservice.errors", "type", "conflict");
+        this.staleRecordCounter = registry.counter("userservice.errors", "type", "stale_record");
+        this.unavailableCounter = registry.counter("userservice.errors", "type", "unavailable");
+        this.busyCounter = registry.counter("userservice.errors", "type", "busy");
+        this.invalidRequestCounter = registry.counter("userservice.errors", "type", "invalid_request");
+        this.invalidParameterCounter = registry.counter("userservice.errors", "type", "invalid_parameter");
+
         this.fieldDescriptions = new HashMap<>();
         fieldDescriptions.put("email", "Email");
         fieldDescriptions.put("dateOfBirth", "Date of birth");
+        fieldDescriptions.put("version", "Version");
+        fieldDescriptions.put("dateOfBirthFrom", "Date of birth");
+        fieldDescriptions.put("dateOfBirthTo", "Date of birth");
+        fieldDescriptions.put("sort", "Sort");
+        fieldDescriptions.put("limit", "Limit");
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex, WebRequest request) {
-        logger.warn(ex.getMessage());
+        notFoundCounter.increment();
+        logSampled(notFoundLogSampler, ex);
         ErrorResponse responseBody = ErrorResponse.builder()
                 .message(ex.getMessage())
                 .timestamp(LocalDateTime.now())
@@ -43,10 +87,33 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex,
                                                                   HttpHeaders headers, HttpStatus status, WebRequest request) {
-        logger.warn(ex.getMessage());
-        FieldError fieldError = ex.getBindingResult().getFieldError();
+        invalidParameterCounter.increment();
+        logSampled(invalidParameterLogSampler, ex);
+        ErrorResponse responseBody = ErrorResponse.builder()
+                .message(invalidParameterMessage(ex.getBindingResult()))
+                .timestamp(LocalDateTime.now())
+                .build();
+        return new ResponseEntity<>(responseBody, HttpStatus.BAD_REQUEST);
+    }
+
+    @Override
+    protected ResponseEntity<Object> handleBindException(BindException ex,
+                                                         HttpHeaders headers, HttpStatus status, WebRequest request) {
+        invalidParameterCounter.increment();
+        logSampled(invalidParameterLogSampler, ex);
         ErrorResponse responseBody = ErrorResponse.builder()
-                .message(String.format("%s %s %s", fieldDescriptions.get(fieldError.getField()), fieldError.getRejectedValue(), "is invalid."))
+                .message(invalidParameterMessage(ex))
+                .timestamp(LocalDateTime.now())
+                .build();
+        return new ResponseEntity<>(responseBody, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    protected ResponseEntity<ErrorResponse> handleInvalidRequestException(InvalidRequestException ex, WebRequest request) {
+        invalidRequestCounter.increment();
+        logSampled(invalidRequestLogSampler, ex);
+        ErrorResponse responseBody = ErrorResponse.builder()
+                .message(ex.getMessage())
                 .timestamp(LocalDateTime.now())
                 .build();
         return new ResponseEntity<>(responseBody, HttpStatus.BAD_REQUEST);
@@ -54,11 +121,67 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler(RecordConflictException.class)
     protected ResponseEntity<ErrorResponse> handleRecordConflictException(RecordConflictException ex, WebRequest request) {
-        logger.warn(ex.getMessage());
+        conflictCounter.increment();
+        logSampled(conflictLogSampler, ex);
         ErrorResponse responseBody = ErrorResponse.builder()
                 .message(ex.getMessage())
                 .timestamp(LocalDateTime.now())
                 .build();
         return new ResponseEntity<>(responseBody, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(StaleRecordException.class)
+    protected ResponseEntity<ErrorResponse> handleStaleRecordException(StaleRecordException ex, WebRequest request) {
+        staleRecordCounter.increment();
+        logSampled(staleRecordLogSampler, ex);
+        ErrorResponse responseBody = ErrorResponse.builder()
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        return new ResponseEntity<>(responseBody, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(DatabaseUnavailableException.class)
+    protected ResponseEntity<ErrorResponse> handleDatabaseUnavailableException(DatabaseUnavailableException ex, WebRequest request) {
+        unavailableCounter.increment();
+        logSampled(unavailableLogSampler, ex);
+        ErrorResponse responseBody = ErrorResponse.builder()
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        return new ResponseEntity<>(responseBody, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    protected ResponseEntity<ErrorResponse> handleServiceBusyException(ServiceBusyException ex, WebRequest request) {
+        busyCounter.increment();
+        logSampled(busyLogSampler, ex);
+        ErrorResponse responseBody = ErrorResponse.builder()
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        return new ResponseEntity<>(responseBody, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private String invalidParameterMessage(BindingResult bindingResult) {
+        FieldError fieldError = bindingResult.getFieldError();
+        if (fieldError == null) {
+            // object-level constraints carry no field to name
+            ObjectError globalError = bindingResult.getGlobalError();
+            return globalError == null ? "Request is invalid." : globalError.getDefaultMessage();
+        }
+        return fieldDescriptions.getOrDefault(fieldError.getField(), fieldError.getField()) + " "
+                + fieldError.getRejectedValue() + " is invalid.";
+    }
+
+    private void logSampled(LogSampler sampler, Exception ex) {
+        if (sampler.tryAcquire()) {
+            long suppressed = sampler.drainSuppressed();
+            logger.warn(suppressed == 0 ? ex.getMessage() : ex.getMessage() + " (" + suppressed + " similar suppressed)");
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package com.splitter.userservice.controller;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets at most one log statement through per interval and counts the ones it held back.
+ */
+class LogSampler {
+
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong nextLogAt;
+    private final LongAdder suppressed = new LongAdder();
+
+    LogSampler(Duration interval) {
+        this(interval, System::nanoTime);
+    }
+
+    LogSampler(Duration interval, LongSupplier nanoClock) {
+        this.intervalNanos = interval.toNanos();
+        this.nanoClock = nanoClock;
+        this.nextLogAt = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    boolean tryAcquire() {
+        long now = nanoClock.getAsLong();
+        long next = nextLogAt.get();
+        if (now - next >= 0 && nextLogAt.compareAndSet(next, now + intervalNanos)) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    long drainSuppressed() {
+        return suppressed.sumThenReset();
+    }
+}
@@ -0,0 +1,38 @@
+package com.splitter.userservice.controller;
+
+import com.splitter.userservice.bulk.BulkFormat;
+import com.splitter.userservice.bulk.UserBulkService;
+import com.splitter.userservice.model.BulkJobResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Bulk export and import of users, enabled with {@code userservice.bulk.enabled=true}.
+ * Files are written to and read from {@code userservice.bulk.directory}.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "userservice.bulk", name = "enabled", havingValue = "true")
+public class UserAdminController {
+
+    private UserBulkService userBulkService;
+
+    @Autowired
+    public UserAdminController(UserBulkService userBulkService) {
+        this.userBulkService = userBulkService;
+    }
+
+    @PostMapping("/admin/users/export")
+    public BulkJobResult exportUsers(@RequestParam(defaultValue = "CSV") BulkFormat format) throws IOException {
+        return userBulkService.export(format);
+    }
+
+    @PostMapping("/admin/users/import")
+    public BulkJobResult importUsers(@RequestParam String file) throws IOException {
+        return userBulkService.importCsv(file);
+    }
+}
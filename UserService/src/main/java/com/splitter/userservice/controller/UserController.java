@@ -1,9 +1,17 @@
 package com.splitter.userservice.controller;
 
+import com.splitter.userservice.admission.Bulkhead;
 import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.model.UserFilter;
+import com.splitter.userservice.model.UserPageDto;
+import com.splitter.userservice.model.UserStatisticsDto;
 import com.splitter.userservice.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -18,18 +26,53 @@ public class UserController {
         this.userService = userService;
     }
 
+    @Bulkhead("list")
     @GetMapping("/users")
-    public List<UserDto> findUsers() {
-        return userService.findAllUsers();
+    public ResponseEntity<List<UserDto>> findUsers(@Valid UserFilter filter) {
+        if (filter.isEmpty()) {
+            return ResponseEntity.ok(userService.findAllUsers());
+        }
+        UserPageDto page = userService.findUsers(filter);
+        if (page.getNextCursor() == null) {
+            return ResponseEntity.ok(page.getUsers());
+        }
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", page.getNextCursor())
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page.getUsers());
     }
 
+    @Bulkhead("lookup")
     @GetMapping("/users/{id}")
-    public UserDto findById(@PathVariable Long id) {
-        return userService.findUserById(id);
+    public ResponseEntity<UserDto> findById(@PathVariable Long id) {
+        UserDto user = userService.findUserById(id);
+        if (user.isStale()) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                    .body(user);
+        }
+        return ResponseEntity.ok(user);
     }
 
+    @Bulkhead("lookup")
+    @GetMapping("/users/stats")
+    public UserStatisticsDto findUserStatistics() {
+        return userService.getUserStatistics();
+    }
+
+    @Bulkhead("write")
     @PostMapping("/users")
     public UserDto createUser(@RequestBody @Valid UserDto userDto) {
         return userService.createUser(userDto);
     }
+
+    @Bulkhead("write")
+    @PatchMapping("/users/{id}")
+    public ResponseEntity<Void> updateUser(@PathVariable Long id,
+                                           @RequestBody @Validated(UserDto.Patch.class) UserDto userDto) {
+        long version = userService.updateUser(id, userDto);
+        return ResponseEntity.noContent().eTag(Long.toString(version)).build();
+    }
 }
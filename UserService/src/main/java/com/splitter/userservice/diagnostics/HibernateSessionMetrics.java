@@ -0,0 +1,68 @@
+package com.splitter.userservice.diagnostics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Per-session Hibernate listener that adds session, flush and connection acquisition
+ * activity to the {@link SqlStatistics} of the current thread. Hibernate instantiates it
+ * for every session from the {@code hibernate.session.events.auto} setting, so the
+ * recorder is handed over through {@link #install(SqlStatementRecorder)}.
+ */
+public class HibernateSessionMetrics extends BaseSessionEventListener {
+
+    private static volatile SqlStatementRecorder recorder;
+
+    private long connectionAcquisitionStart;
+    private long flushStart;
+
+    public HibernateSessionMetrics() {
+        SqlStatementRecorder current = recorder;
+        if (current != null) {
+            current.recordSession();
+        }
+    }
+
+    public static void install(SqlStatementRecorder sqlStatementRecorder) {
+        recorder = sqlStatementRecorder;
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        connectionAcquisitionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        SqlStatementRecorder current = recorder;
+        if (current != null) {
+            current.recordConnectionAcquisition(System.nanoTime() - connectionAcquisitionStart);
+        }
+    }
+
+    @Override
+    public void flushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        recordFlush(numberOfEntities);
+    }
+
+    @Override
+    public void partialFlushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        recordFlush(numberOfEntities);
+    }
+
+    private void recordFlush(int numberOfEntities) {
+        SqlStatementRecorder current = recorder;
+        if (current != null) {
+            current.recordFlush(System.nanoTime() - flushStart, numberOfEntities);
+        }
+    }
+}
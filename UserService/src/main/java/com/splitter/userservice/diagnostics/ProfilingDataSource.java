@@ -0,0 +1,87 @@
+package com.splitter.userservice.diagnostics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Wraps a {@link DataSource} so that every connection it hands out reports statement
+ * execution times to a {@link SqlStatementRecorder}.
+ */
+final class ProfilingDataSource {
+
+    private ProfilingDataSource() {
+    }
+
+    static DataSource wrap(DataSource dataSource, SqlStatementRecorder recorder) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (method.getName().equals("getConnection")) {
+                recorder.recordConnection();
+                return wrapConnection((Connection) result, recorder);
+            }
+            return result;
+        });
+    }
+
+    private static Connection wrapConnection(Connection connection, SqlStatementRecorder recorder) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (!method.getName().startsWith("prepare") && !method.getName().equals("createStatement")) {
+                return result;
+            }
+            if (result instanceof CallableStatement) {
+                return wrapStatement(CallableStatement.class, (Statement) result, (String) args[0], recorder);
+            }
+            if (result instanceof PreparedStatement) {
+                return wrapStatement(PreparedStatement.class, (Statement) result, (String) args[0], recorder);
+            }
+            if (result instanceof Statement) {
+                return wrapStatement(Statement.class, (Statement) result, null, recorder);
+            }
+            return result;
+        });
+    }
+
+    private static <T extends Statement> T wrapStatement(Class<T> type, Statement statement, String preparedSql,
+                                                         SqlStatementRecorder recorder) {
+        return proxy(type, statement, (target, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                recorder.recordStatement(sql, System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, Object target, TargetInvocationHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+        return type.cast(Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, invocationHandler));
+    }
+
+    @FunctionalInterface
+    private interface TargetInvocationHandler {
+
+        Object invoke(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,22 @@
+package com.splitter.userservice.diagnostics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+public class SqlDataSourceBeanPostProcessor implements BeanPostProcessor {
+
+    private final SqlStatementRecorder recorder;
+
+    public SqlDataSourceBeanPostProcessor(SqlStatementRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource) {
+            return ProfilingDataSource.wrap((DataSource) bean, recorder);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,43 @@
+package com.splitter.userservice.diagnostics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Reports the SQL activity of each request and flags requests issuing more statements
+ * than allowed, which usually means an N+1 select.
+ */
+@Slf4j
+public class SqlDiagnosticsFilter extends OncePerRequestFilter {
+
+    private final SqlStatementRecorder recorder;
+    private final int maxStatementsPerRequest;
+
+    public SqlDiagnosticsFilter(SqlStatementRecorder recorder, int maxStatementsPerRequest) {
+        this.recorder = recorder;
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        recorder.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatistics statistics = recorder.end();
+            if (statistics.getStatementCount() > maxStatementsPerRequest) {
+                log.warn("{} {} issued {} (limit {} statements)", request.getMethod(), request.getRequestURI(),
+                        statistics, maxStatementsPerRequest);
+            } else {
+                log.debug("{} {} issued {}", request.getMethod(), request.getRequestURI(), statistics);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.splitter.userservice.diagnostics;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+@Data
+public class SqlDiagnosticsProperties {
+
+    public static final String PREFIX = "userservice.diagnostics.sql";
+
+    private boolean enabled;
+    private Duration slowStatementThreshold = Duration.ofMillis(100);
+    private int maxStatementsPerRequest = 10;
+}
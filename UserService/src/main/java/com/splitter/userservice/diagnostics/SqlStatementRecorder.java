@@ -0,0 +1,112 @@
+package com.splitter.userservice.diagnostics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects {@link SqlStatistics} for the unit of work running on the current thread and
+ * logs statements slower than the configured threshold.
+ */
+@Slf4j
+public class SqlStatementRecorder {
+
+    private final ThreadLocal<SqlStatistics> current = new ThreadLocal<>();
+    private final long slowStatementNanos;
+
+    public SqlStatementRecorder(Duration slowStatementThreshold) {
+        this.slowStatementNanos = slowStatementThreshold.toNanos();
+    }
+
+    public void begin() {
+        current.set(new SqlStatistics());
+    }
+
+    public SqlStatistics end() {
+        SqlStatistics statistics = current.get();
+        current.remove();
+        return statistics;
+    }
+
+    public SqlStatistics capture(Runnable work) {
+        begin();
+        try {
+            work.run();
+        } catch (RuntimeException ex) {
+            end();
+            throw ex;
+        }
+        return end();
+    }
+
+    /**
+     * Makes {@code task} record into the unit of work of the calling thread, for work the caller
+     * hands to a pool thread and waits for.
+     */
+    public Runnable propagate(Runnable task) {
+        SqlStatistics statistics = current.get();
+        if (statistics == null) {
+            return task;
+        }
+        return () -> {
+            SqlStatistics previous = current.get();
+            current.set(statistics);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    current.remove();
+                } else {
+                    current.set(previous);
+                }
+            }
+        };
+    }
+
+    void recordConnection() {
+        SqlStatistics statistics = current.get();
+        if (statistics != null) {
+            statistics.addConnection();
+        }
+    }
+
+    void recordSession() {
+        SqlStatistics statistics = current.get();
+        if (statistics != null) {
+            statistics.addSession();
+        }
+    }
+
+    void recordConnectionAcquisition(long nanos) {
+        SqlStatistics statistics = current.get();
+        if (statistics != null) {
+            statistics.addConnectionAcquisition(nanos);
+        }
+    }
+
+    void recordFlush(long nanos, int entities) {
+        SqlStatistics statistics = current.get();
+        if (statistics != null) {
+            statistics.addFlush(nanos, entities);
+        }
+    }
+
+    void recordStatement(String sql, long nanos) {
+        SqlStatistics statistics = current.get();
+        if (statistics != null) {
+            statistics.addStatement(nanos);
+        }
+        if (nanos >= slowStatementNanos) {
+            log.warn("Slow SQL statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), redact(sql));
+        }
+    }
+
+    static String redact(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        return sql.replaceAll("'(?:[^']|'')*'", "?")
+                .replaceAll("\\b\\d+(\\.\\d+)?\\b", "?");
+    }
+}
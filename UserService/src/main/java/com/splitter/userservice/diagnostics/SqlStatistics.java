@@ -0,0 +1,82 @@
+package com.splitter.userservice.diagnostics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDBC activity of one unit of work, usually a request. Updates are synchronized because a
+ * read that timed out keeps recording from its pool thread after the request moved on.
+ */
+public class SqlStatistics {
+
+    private int connectionCount;
+    private long connectionAcquisitionNanos;
+    private int statementCount;
+    private long statementNanos;
+    private int sessionCount;
+    private int flushCount;
+    private int flushedEntityCount;
+    private long flushNanos;
+
+    synchronized void addConnection() {
+        connectionCount++;
+    }
+
+    synchronized void addConnectionAcquisition(long nanos) {
+        connectionAcquisitionNanos += nanos;
+    }
+
+    synchronized void addSession() {
+        sessionCount++;
+    }
+
+    synchronized void addFlush(long nanos, int entities) {
+        flushCount++;
+        flushedEntityCount += entities;
+        flushNanos += nanos;
+    }
+
+    synchronized void addStatement(long nanos) {
+        statementCount++;
+        statementNanos += nanos;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getStatementMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(statementNanos);
+    }
+
+    public long getConnectionAcquisitionMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(connectionAcquisitionNanos);
+    }
+
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    public int getFlushCount() {
+        return flushCount;
+    }
+
+    public int getFlushedEntityCount() {
+        return flushedEntityCount;
+    }
+
+    public long getFlushMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(flushNanos);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return connectionCount + " connections (" + getConnectionAcquisitionMillis() + " ms acquiring), "
+                + statementCount + " statements, " + getStatementMillis() + " ms in SQL, "
+                + sessionCount + " Hibernate sessions, " + flushCount + " flushes of " + flushedEntityCount
+                + " entities, " + getFlushMillis() + " ms flushing";
+    }
+}
@@ -7,26 +7,71 @@ import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Data
 @Entity
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_last_name", columnList = "last_name, id"),
+        @Index(name = "idx_users_email_domain", columnList = "email_domain, id"),
+        @Index(name = "idx_users_date_of_birth", columnList = "date_of_birth, id")
+})
 public class User {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
-    @Column(name = "username", unique = true)
+    @Column(name = "username")
     private String username;
-    @Column(name = "email", unique = true)
+    @Column(name = "username_key", unique = true)
+    private String usernameKey;
+    @Column(name = "email")
     private String email;
+    @Column(name = "email_key", unique = true)
+    private String emailKey;
+    @Column(name = "email_domain")
+    private String emailDomain;
     @Column(name = "first_name")
     private String firstName;
     @Column(name = "last_name")
     private String lastName;
     @Column(name = "date_of_birth")
     private LocalDate dateOfBirth;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    @PrePersist
+    void onPersist() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        onUpdate();
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        usernameKey = keyOf(username);
+        emailKey = keyOf(email);
+        emailDomain = emailDomainOf(email);
+    }
+
+    /**
+     * Form of a username or email that uniqueness is checked on, so that two values differing
+     * only in case belong to the same user.
+     */
+    public static String keyOf(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    public static String emailDomainOf(String email) {
+        int at = email == null ? -1 : email.lastIndexOf('@');
+        return at < 0 ? null : email.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
 }
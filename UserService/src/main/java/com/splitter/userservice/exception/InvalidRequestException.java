@@ -0,0 +1,8 @@
+package com.splitter.userservice.exception;
+
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -3,6 +3,6 @@ package com.splitter.userservice.exception;
 public class RecordConflictException extends RuntimeException {
 
     public RecordConflictException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
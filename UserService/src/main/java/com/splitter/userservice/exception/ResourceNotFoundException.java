@@ -1,8 +1,11 @@
 package com.splitter.userservice.exception;
 
+/**
+ * Thrown for every lookup of a missing user, so it is created without a stack trace.
+ */
 public class ResourceNotFoundException extends RuntimeException {
 
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,8 @@
+package com.splitter.userservice.exception;
+
+public class StaleRecordException extends RuntimeException {
+
+    public StaleRecordException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,23 @@
+package com.splitter.userservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkJobResult {
+
+    private String file;
+    private long rowsRead;
+    private long rowsWritten;
+    private long rowsRejected;
+    private long rowsSkipped;
+    private List<String> rejections;
+    private long durationMillis;
+}
@@ -1,5 +1,6 @@
 package com.splitter.userservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -11,7 +12,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.Email;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Past;
+import javax.validation.groups.Default;
 import java.time.LocalDate;
 
 @Data
@@ -31,4 +34,14 @@ public class UserDto {
     @JsonSerialize(using = LocalDateSerializer.class)
     @JsonDeserialize(using = LocalDateDeserializer.class)
     private LocalDate dateOfBirth;
+    @NotNull(groups = Patch.class)
+    private Long version;
+    @JsonIgnore
+    private boolean stale;
+
+    /**
+     * Validation group of partial updates, which must carry the version they were based on.
+     */
+    public interface Patch extends Default {
+    }
 }
@@ -0,0 +1,40 @@
+package com.splitter.userservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFilter {
+
+    public static final int DEFAULT_LIMIT = 100;
+
+    private String username;
+    private String lastName;
+    private String emailDomain;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateOfBirthFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateOfBirthTo;
+    @Pattern(regexp = "-?(id|username|lastName|dateOfBirth)")
+    private String sort;
+    @Min(1)
+    @Max(1000)
+    private Integer limit;
+    private String after;
+
+    public boolean isEmpty() {
+        return username == null && lastName == null && emailDomain == null && dateOfBirthFrom == null
+                && dateOfBirthTo == null && sort == null && limit == null && after == null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.splitter.userservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatisticsDto {
+
+    private long totalUsers;
+    private Map<String, Long> signupsPerDay;
+    private Map<String, Long> ageDistribution;
+}
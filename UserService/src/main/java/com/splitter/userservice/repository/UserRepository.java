@@ -1,18 +1,38 @@
 package com.splitter.userservice.repository;
 
 import com.splitter.userservice.domain.User;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface UserRepository extends CrudRepository<User, Long> {
+public interface UserRepository extends CrudRepository<User, Long>, UserRepositoryCustom {
 
     @Override
     List<User> findAll();
 
-    boolean existsByEmail(String email);
+    boolean existsByEmailKey(String emailKey);
 
-    boolean existsByUsername(String username);
+    boolean existsByUsernameKey(String usernameKey);
+
+    boolean existsByEmailKeyAndIdNot(String emailKey, Long id);
+
+    boolean existsByUsernameKeyAndIdNot(String usernameKey, Long id);
+
+    @Query(value = "SELECT CAST(CREATED_AT AS DATE), COUNT(*) FROM USERS WHERE CREATED_AT >= :since "
+            + "GROUP BY CAST(CREATED_AT AS DATE)", nativeQuery = true)
+    List<Object[]> countSignupsPerDaySince(@Param("since") LocalDateTime since);
+
+    @Query(value = "SELECT DATE_OF_BIRTH, COUNT(*) FROM USERS WHERE DATE_OF_BIRTH IS NOT NULL "
+            + "GROUP BY DATE_OF_BIRTH", nativeQuery = true)
+    List<Object[]> countUsersPerBirthDate();
+
+    @Query("select u.dateOfBirth from User u where u.id = :id and u.version = :version")
+    Optional<LocalDate> findDateOfBirthByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
 }
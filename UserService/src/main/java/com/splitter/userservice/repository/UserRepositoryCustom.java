@@ -0,0 +1,23 @@
+package com.splitter.userservice.repository;
+
+import com.splitter.userservice.domain.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Applies the non-null fields of {@code changes} with a single
+     * {@code UPDATE ... WHERE id = ? AND version = ?} and increments the version.
+     *
+     * @return the number of updated rows, 0 if the user does not exist or has another version
+     */
+    int updateNonNullFields(Long id, Long version, User changes);
+
+    /**
+     * Returns at most {@code limit} matching users without issuing a count query.
+     */
+    List<User> findAll(Specification<User> specification, Sort sort, int limit);
+}
@@ -0,0 +1,63 @@
+package com.splitter.userservice.repository;
+
+import com.splitter.userservice.domain.User;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int updateNonNullFields(Long id, Long version, User changes) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = builder.createCriteriaUpdate(User.class);
+        Root<User> root = update.from(User.class);
+
+        setIfPresent(update, root, "username", changes.getUsername());
+        setIfPresent(update, root, "usernameKey", User.keyOf(changes.getUsername()));
+        setIfPresent(update, root, "email", changes.getEmail());
+        setIfPresent(update, root, "emailKey", User.keyOf(changes.getEmail()));
+        setIfPresent(update, root, "emailDomain", User.emailDomainOf(changes.getEmail()));
+        setIfPresent(update, root, "firstName", changes.getFirstName());
+        setIfPresent(update, root, "lastName", changes.getLastName());
+        setIfPresent(update, root, "dateOfBirth", changes.getDateOfBirth());
+        update.set(root.<Long>get("version"), builder.sum(root.<Long>get("version"), 1L));
+        update.where(builder.equal(root.get("id"), id), builder.equal(root.get("version"), version));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<User> findAll(Specification<User> specification, Sort sort, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = builder.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+        if (specification != null) {
+            query.where(specification.toPredicate(root, query, builder));
+        }
+        query.orderBy(toOrders(sort, root, builder));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private <T> void setIfPresent(CriteriaUpdate<User> update, Root<User> root, String attribute, T value) {
+        if (value != null) {
+            update.set(root.<T>get(attribute), value);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.splitter.userservice.repository;
+
+import com.splitter.userservice.domain.User;
+import com.splitter.userservice.exception.InvalidRequestException;
+import com.splitter.userservice.model.UserFilter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Sort key of a user listing, always tie-broken by id, and the opaque keyset cursor
+ * pointing past the last user of a page.
+ * <p>
+ * A page only costs as much as the rows it returns when one index both narrows the filter and
+ * yields the sort order. Each index of {@code users} serves exactly one filter: an equality on
+ * last name or email domain walks {@code (column, id)} in id order, and a username prefix or a
+ * date of birth range walks that column's index in its own order. Any further filters are
+ * checked on the rows that index yields. {@link #of(UserFilter)} therefore defaults the sort to
+ * the filtered column and rejects sorts no filter can be served in.
+ */
+public class UserSort {
+
+    private final String attribute;
+    private final boolean descending;
+
+    private UserSort(String attribute, boolean descending) {
+        this.attribute = attribute;
+        this.descending = descending;
+    }
+
+    /**
+     * @param sort attribute name, prefixed with {@code -} for descending order; {@code null} sorts by id
+     */
+    public static UserSort parse(String sort) {
+        if (sort == null) {
+            return new UserSort("id", false);
+        }
+        boolean descending = sort.startsWith("-");
+        return new UserSort(descending ? sort.substring(1) : sort, descending);
+    }
+
+    /**
+     * Sort of the listing described by {@code filter}: the requested one, or the order of the
+     * filtered column's index when none is requested.
+     *
+     * @throws InvalidRequestException if the requested sort cannot be read from the index of any filter
+     */
+    public static UserSort of(UserFilter filter) {
+        if (filter.getSort() == null) {
+            if (filter.getUsername() != null) {
+                return new UserSort("username", false);
+            }
+            if (filter.getDateOfBirthFrom() != null || filter.getDateOfBirthTo() != null) {
+                return new UserSort("dateOfBirth", false);
+            }
+            return parse(null);
+        }
+        UserSort sort = parse(filter.getSort());
+        if (!sort.isServedBy(filter)) {
+            throw new InvalidRequestException("Sort " + filter.getSort() + " is not supported with the given filters.");
+        }
+        return sort;
+    }
+
+    private boolean isServedBy(UserFilter filter) {
+        boolean filtered = filter.getUsername() != null || filter.getLastName() != null || filter.getEmailDomain() != null
+                || filter.getDateOfBirthFrom() != null || filter.getDateOfBirthTo() != null;
+        if (!filtered) {
+            return true;
+        }
+        switch (attribute) {
+            case "username":
+                return filter.getUsername() != null;
+            case "lastName":
+                return filter.getLastName() != null;
+            case "dateOfBirth":
+                return filter.getDateOfBirthFrom() != null || filter.getDateOfBirthTo() != null;
+            default:
+                return filter.getLastName() != null || filter.getEmailDomain() != null;
+        }
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public Sort toSort() {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, attribute);
+        return "id".equals(attribute) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Encodes the sort itself ahead of the position, so a cursor replayed under another sort is
+     * rejected instead of seeking on the wrong column.
+     */
+    public String cursorOf(User user) {
+        Object value = valueOf(user);
+        String cursor = this + ":" + user.getId() + (value == null ? "" : ":" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Cursor decode(String cursor) {
+        String sort;
+        Long id;
+        String value;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sortEnd = decoded.indexOf(':');
+            int idEnd = decoded.indexOf(':', sortEnd + 1);
+            sort = decoded.substring(0, sortEnd);
+            id = Long.valueOf(idEnd < 0 ? decoded.substring(sortEnd + 1) : decoded.substring(sortEnd + 1, idEnd));
+            value = idEnd < 0 ? null : decoded.substring(idEnd + 1);
+        } catch (RuntimeException ex) {
+            throw new InvalidRequestException("Cursor " + cursor + " is invalid.");
+        }
+        if (!sort.equals(toString())) {
+            throw new InvalidRequestException("Cursor " + cursor + " belongs to sort " + sort + ", not " + this + ".");
+        }
+        try {
+            return new Cursor(id, value != null && "dateOfBirth".equals(attribute) ? LocalDate.parse(value) : value);
+        } catch (RuntimeException ex) {
+            throw new InvalidRequestException("Cursor " + cursor + " is invalid.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return descending ? "-" + attribute : attribute;
+    }
+
+    private Object valueOf(User user) {
+        switch (attribute) {
+            case "username":
+                return user.getUsername();
+            case "lastName":
+                return user.getLastName();
+            case "dateOfBirth":
+                return user.getDateOfBirth();
+            default:
+                return null;
+        }
+    }
+
+    static final class Cursor {
+
+        final Long id;
+        final Object value;
+
+        private Cursor(Long id, Object value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.splitter.userservice.repository;
+
+import com.splitter.userservice.domain.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Filters of the user listing. Each returns {@code null} for a missing argument so that
+ * they can be chained with {@link Specification#and(Specification)}.
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> usernameStartsWith(String prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, builder) -> builder.like(root.get("username"), pattern, '\\');
+    }
+
+    public static Specification<User> lastNameEquals(String lastName) {
+        return lastName == null ? null : (root, query, builder) -> builder.equal(root.get("lastName"), lastName);
+    }
+
+    public static Specification<User> emailDomainEquals(String emailDomain) {
+        return emailDomain == null ? null : (root, query, builder) ->
+                builder.equal(root.get("emailDomain"), emailDomain.toLowerCase(Locale.ROOT));
+    }
+
+    public static Specification<User> bornOnOrAfter(LocalDate date) {
+        return date == null ? null : (root, query, builder) ->
+                builder.greaterThanOrEqualTo(root.<LocalDate>get("dateOfBirth"), date);
+    }
+
+    public static Specification<User> bornOnOrBefore(LocalDate date) {
+        return date == null ? null : (root, query, builder) ->
+                builder.lessThanOrEqualTo(root.<LocalDate>get("dateOfBirth"), date);
+    }
+
+    /**
+     * Keyset condition selecting the users that follow the cursor in the given sort order.
+     * Missing values are treated as lower than any other value, as H2 orders them by default.
+     */
+    public static Specification<User> after(UserSort sort, String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        UserSort.Cursor position = sort.decode(cursor);
+        return (root, query, builder) -> {
+            Predicate afterId = beyond(builder, root.<Long>get("id"), position.id, sort.isDescending());
+            switch (sort.getAttribute()) {
+                case "username":
+                case "lastName":
+                    return afterValue(builder, root.<String>get(sort.getAttribute()), (String) position.value,
+                            afterId, sort.isDescending());
+                case "dateOfBirth":
+                    return afterValue(builder, root.<LocalDate>get("dateOfBirth"), (LocalDate) position.value,
+                            afterId, sort.isDescending());
+                default:
+                    return afterId;
+            }
+        };
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate afterValue(CriteriaBuilder builder, Path<Y> path, Y value,
+                                                                          Predicate afterId, boolean descending) {
+        if (value == null) {
+            Predicate sameValue = builder.and(builder.isNull(path), afterId);
+            return descending ? sameValue : builder.or(sameValue, builder.isNotNull(path));
+        }
+        Predicate sameValue = builder.and(builder.equal(path, value), afterId);
+        return descending
+                ? builder.or(builder.lessThan(path, value), builder.isNull(path), sameValue)
+                : builder.or(builder.greaterThan(path, value), sameValue);
+    }
+
+    private static <Y extends Comparable<? super Y>> Predicate beyond(CriteriaBuilder builder, Path<Y> path, Y value,
+                                                                      boolean descending) {
+        return descending ? builder.lessThan(path, value) : builder.greaterThan(path, value);
+    }
+}
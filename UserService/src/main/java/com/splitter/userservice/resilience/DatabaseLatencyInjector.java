@@ -0,0 +1,43 @@
+package com.splitter.userservice.resilience;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+
+/**
+ * Delays every connection checkout by an adjustable amount to simulate a degraded
+ * database locally. Enabled with {@code userservice.resilience.latency-injection.enabled=true}.
+ */
+public class DatabaseLatencyInjector implements BeanPostProcessor {
+
+    private volatile Duration latency = Duration.ZERO;
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public Duration getLatency() {
+        return latency;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) {
+            return bean;
+        }
+        return Proxy.newProxyInstance(DatabaseLatencyInjector.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getConnection") && !latency.isZero()) {
+                        Thread.sleep(latency.toMillis());
+                    }
+                    try {
+                        return method.invoke(bean, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+}
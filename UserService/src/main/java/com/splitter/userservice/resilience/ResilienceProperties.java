@@ -0,0 +1,22 @@
+package com.splitter.userservice.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "userservice.resilience")
+public class ResilienceProperties {
+
+    private boolean enabled;
+    private Duration readTimeout = Duration.ofMillis(500);
+    private int maxConcurrentReads = 50;
+    private Duration listReadTimeout = Duration.ofSeconds(10);
+    private int maxConcurrentListReads = 10;
+    private int failureThreshold = 5;
+    private Duration openDuration = Duration.ofSeconds(10);
+    private Duration lastKnownTimeToLive = Duration.ofHours(1);
+    private int lastKnownMaxEntries = 10_000;
+    private int maxRefreshedEntries = 1_000;
+}
@@ -0,0 +1,251 @@
+package com.splitter.userservice.resilience;
+
+import com.splitter.userservice.cache.ExpiringCache;
+import com.splitter.userservice.exception.DatabaseUnavailableException;
+import com.splitter.userservice.exception.InvalidRequestException;
+import com.splitter.userservice.exception.ResourceNotFoundException;
+import com.splitter.userservice.exception.ServiceBusyException;
+import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.model.UserFilter;
+import com.splitter.userservice.model.UserPageDto;
+import com.splitter.userservice.model.UserStatisticsDto;
+import com.splitter.userservice.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs reads with a timeout behind a {@link CircuitBreaker}. While the database is
+ * unhealthy, lookups are answered with the last known copy of the user flagged as stale;
+ * the users served stale are reloaded in the background once the breaker closes again.
+ * List reads run on their own pool, with their own timeout and breaker, so that listings
+ * that are slow because they are large do not trip the breaker of the id lookups.
+ * <p>
+ * A read that finds its pool saturated is shed with {@link ServiceBusyException} and does
+ * not count against the breaker, as it never reached the database.
+ */
+@Slf4j
+public class ResilientUserService implements UserService {
+
+    private UserService delegate;
+    private CircuitBreaker circuitBreaker;
+    private CircuitBreaker listCircuitBreaker;
+    private ExpiringCache<Long, UserDto> lastKnownUsers;
+    private ThreadPoolExecutor readExecutor;
+    private ThreadPoolExecutor listReadExecutor;
+    private TaskDecorator taskDecorator;
+    private long readTimeoutNanos;
+    private long listReadTimeoutNanos;
+    private long retryAfterSeconds;
+    private int maxRefreshedEntries;
+    private Set<Long> servedStale = ConcurrentHashMap.newKeySet();
+
+    public ResilientUserService(UserService delegate, CircuitBreaker circuitBreaker, CircuitBreaker listCircuitBreaker,
+                                ResilienceProperties properties) {
+        this(delegate, circuitBreaker, listCircuitBreaker, properties, task -> task);
+    }
+
+    /**
+     * @param taskDecorator applied to every read before it is handed to a pool thread, e.g. to
+     *                      carry thread-bound context of the calling request over to it
+     */
+    public ResilientUserService(UserService delegate, CircuitBreaker circuitBreaker, CircuitBreaker listCircuitBreaker,
+                                ResilienceProperties properties, TaskDecorator taskDecorator) {
+        this.delegate = delegate;
+        this.taskDecorator = taskDecorator;
+        this.circuitBreaker = circuitBreaker;
+        this.listCircuitBreaker = listCircuitBreaker;
+        this.lastKnownUsers = new ExpiringCache<>(properties.getLastKnownTimeToLive(), properties.getLastKnownMaxEntries());
+        this.readExecutor = newReadExecutor(properties.getMaxConcurrentReads(), "user-reads-");
+        this.listReadExecutor = newReadExecutor(properties.getMaxConcurrentListReads(), "user-list-reads-");
+        this.readTimeoutNanos = properties.getReadTimeout().toNanos();
+        this.listReadTimeoutNanos = properties.getListReadTimeout().toNanos();
+        this.retryAfterSeconds = Math.max(1, properties.getOpenDuration().getSeconds());
+        this.maxRefreshedEntries = properties.getMaxRefreshedEntries();
+    }
+
+    @Override
+    public List<UserDto> findAllUsers() {
+        return list(delegate::findAllUsers);
+    }
+
+    @Override
+    public UserPageDto findUsers(UserFilter filter) {
+        return list(() -> delegate.findUsers(filter));
+    }
+
+    @Override
+    public UserDto findUserById(Long id) {
+        if (!circuitBreaker.allowRequest()) {
+            return lastKnown(id);
+        }
+        UserDto user;
+        try {
+            user = read(readExecutor, readTimeoutNanos, () -> delegate.findUserById(id));
+        } catch (ResourceNotFoundException ex) {
+            onSuccess();
+            lastKnownUsers.evict(id);
+            throw ex;
+        } catch (ReadFailedException ex) {
+            circuitBreaker.onFailure();
+            return lastKnown(id);
+        } catch (RuntimeException ex) {
+            circuitBreaker.releaseTrial();
+            throw ex;
+        }
+        onSuccess();
+        lastKnownUsers.put(id, user);
+        return user;
+    }
+
+    @Override
+    public UserDto createUser(UserDto user) {
+        return delegate.createUser(user);
+    }
+
+    @Override
+    public long updateUser(Long id, UserDto user) {
+        try {
+            return delegate.updateUser(id, user);
+        } finally {
+            lastKnownUsers.evict(id);
+        }
+    }
+
+    @Override
+    public UserStatisticsDto getUserStatistics() {
+        return delegate.getUserStatistics();
+    }
+
+    public CircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    public CircuitBreaker.State getListCircuitBreakerState() {
+        return listCircuitBreaker.getState();
+    }
+
+    public void shutdown() {
+        readExecutor.shutdownNow();
+        listReadExecutor.shutdownNow();
+    }
+
+    private <T> T list(Callable<T> call) {
+        if (!listCircuitBreaker.allowRequest()) {
+            throw unavailable();
+        }
+        try {
+            T result = read(listReadExecutor, listReadTimeoutNanos, call);
+            listCircuitBreaker.onSuccess();
+            return result;
+        } catch (ReadFailedException ex) {
+            listCircuitBreaker.onFailure();
+            throw unavailable();
+        } catch (RuntimeException ex) {
+            listCircuitBreaker.releaseTrial();
+            throw ex;
+        }
+    }
+
+    private <T> T read(ThreadPoolExecutor executor, long timeoutNanos, Callable<T> call) {
+        FutureTask<T> future = new FutureTask<>(call);
+        try {
+            executor.execute(taskDecorator.decorate(future));
+        } catch (RejectedExecutionException ex) {
+            throw new ServiceBusyException("Too many concurrent user reads, retry later.", 1);
+        }
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new ReadFailedException();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ReadFailedException();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof ResourceNotFoundException) {
+                throw (ResourceNotFoundException) ex.getCause();
+            }
+            if (ex.getCause() instanceof InvalidRequestException) {
+                throw (InvalidRequestException) ex.getCause();
+            }
+            log.warn("User read failed: {}", ex.getCause().toString());
+            throw new ReadFailedException();
+        }
+    }
+
+    private UserDto lastKnown(Long id) {
+        UserDto user = lastKnownUsers.get(id);
+        if (user == null) {
+            throw unavailable();
+        }
+        if (servedStale.size() < maxRefreshedEntries) {
+            servedStale.add(id);
+        }
+        return UserDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .dateOfBirth(user.getDateOfBirth())
+                .version(user.getVersion())
+                .stale(true)
+                .build();
+    }
+
+    private void onSuccess() {
+        if (circuitBreaker.onSuccess() && !servedStale.isEmpty()) {
+            try {
+                readExecutor.execute(this::refreshServedStale);
+            } catch (RejectedExecutionException ex) {
+                log.debug("Skipped refresh of stale users, read pool is busy.");
+            }
+        }
+    }
+
+    private void refreshServedStale() {
+        for (Long id : servedStale) {
+            servedStale.remove(id);
+            try {
+                lastKnownUsers.put(id, delegate.findUserById(id));
+            } catch (ResourceNotFoundException ex) {
+                lastKnownUsers.evict(id);
+            } catch (RuntimeException ex) {
+                log.debug("Refresh of user {} failed: {}", id, ex.toString());
+                return;
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor newReadExecutor(int maxThreads, String threadNamePrefix) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), new CustomizableThreadFactory(threadNamePrefix));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private DatabaseUnavailableException unavailable() {
+        return new DatabaseUnavailableException("User database is temporarily unavailable.", retryAfterSeconds);
+    }
+
+    private static final class ReadFailedException extends RuntimeException {
+
+        private ReadFailedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.splitter.userservice.service;
+
+import com.splitter.userservice.cache.TwoTierUserCache;
+import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.model.UserFilter;
+import com.splitter.userservice.model.UserPageDto;
+import com.splitter.userservice.model.UserStatisticsDto;
+
+import java.util.List;
+
+public class CachingUserService implements UserService {
+
+    private UserService delegate;
+    private TwoTierUserCache userCache;
+
+    public CachingUserService(UserService delegate, TwoTierUserCache userCache) {
+        this.delegate = delegate;
+        this.userCache = userCache;
+    }
+
+    @Override
+    public List<UserDto> findAllUsers() {
+        return delegate.findAllUsers();
+    }
+
+    @Override
+    public UserPageDto findUsers(UserFilter filter) {
+        return delegate.findUsers(filter);
+    }
+
+    @Override
+    public UserDto findUserById(Long id) {
+        UserDto user = userCache.get(id);
+        if (user == null) {
+            user = delegate.findUserById(id);
+            if (!user.isStale()) {
+                userCache.put(user);
+            }
+        }
+        return user;
+    }
+
+    @Override
+    public UserDto createUser(UserDto user) {
+        UserDto created = delegate.createUser(user);
+        userCache.invalidate(created.getId(), created.getVersion() == null ? 0 : created.getVersion());
+        return created;
+    }
+
+    @Override
+    public long updateUser(Long id, UserDto user) {
+        long version;
+        try {
+            version = delegate.updateUser(id, user);
+        } catch (RuntimeException ex) {
+            userCache.invalidate(id);
+            throw ex;
+        }
+        userCache.invalidate(id, version);
+        return version;
+    }
+
+    @Override
+    public UserStatisticsDto getUserStatistics() {
+        return delegate.getUserStatistics();
+    }
+}
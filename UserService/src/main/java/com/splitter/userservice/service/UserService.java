@@ -1,6 +1,9 @@
 package com.splitter.userservice.service;
 
 import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.model.UserFilter;
+import com.splitter.userservice.model.UserPageDto;
+import com.splitter.userservice.model.UserStatisticsDto;
 
 import java.util.List;
 
@@ -8,7 +11,22 @@ public interface UserService {
 
     List<UserDto> findAllUsers();
 
+    /**
+     * Returns one page of the users matching {@code filter}, ordered by its sort key and then by id.
+     * The page continues after {@code filter.getAfter()}, the cursor returned with the previous page.
+     */
+    UserPageDto findUsers(UserFilter filter);
+
     UserDto findUserById(Long id);
 
     UserDto createUser(UserDto user);
+
+    /**
+     * Applies the non-null fields of {@code user} if the stored version still equals {@code user.getVersion()}.
+     *
+     * @return the new version of the user
+     */
+    long updateUser(Long id, UserDto user);
+
+    UserStatisticsDto getUserStatistics();
 }
@@ -3,24 +3,40 @@ package com.splitter.userservice.service;
 import com.splitter.userservice.domain.User;
 import com.splitter.userservice.exception.RecordConflictException;
 import com.splitter.userservice.exception.ResourceNotFoundException;
+import com.splitter.userservice.exception.StaleRecordException;
 import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.model.UserFilter;
+import com.splitter.userservice.model.UserPageDto;
+import com.splitter.userservice.model.UserStatisticsDto;
 import com.splitter.userservice.repository.UserRepository;
+import com.splitter.userservice.repository.UserSort;
+import com.splitter.userservice.statistics.UserStatistics;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static com.splitter.userservice.repository.UserSpecifications.*;
+
 @Service
 public class UserServiceImpl implements UserService {
 
     private UserRepository userRepository;
+    private UserStatistics userStatistics;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, UserStatistics userStatistics) {
         this.userRepository = userRepository;
+        this.userStatistics = userStatistics;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> findAllUsers() {
 
         return userRepository.findAll()
@@ -30,6 +46,32 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public UserPageDto findUsers(UserFilter filter) {
+        UserSort sort = UserSort.of(filter);
+        int limit = filter.getLimit() == null ? UserFilter.DEFAULT_LIMIT : filter.getLimit();
+        Specification<User> specification = Specification.where(usernameStartsWith(filter.getUsername()))
+                .and(lastNameEquals(filter.getLastName()))
+                .and(emailDomainEquals(filter.getEmailDomain()))
+                .and(bornOnOrAfter(filter.getDateOfBirthFrom()))
+                .and(bornOnOrBefore(filter.getDateOfBirthTo()))
+                .and(after(sort, filter.getAfter()));
+
+        // one extra row tells whether there is a next page without a count query
+        List<User> users = userRepository.findAll(specification, sort.toSort(), limit + 1);
+        String nextCursor = null;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            nextCursor = sort.cursorOf(users.get(limit - 1));
+        }
+        return UserPageDto.builder()
+                .users(users.stream().map(this::daoToDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public UserDto findUserById(Long id) {
         return userRepository.findById(id)
                 .map(this::daoToDto)
@@ -37,17 +79,68 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto createUser(UserDto user) {
-        if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RecordConflictException(String.format("%s %s %s", "Email", user.getEmail(), "has already been taken by other user."));
+        if (userRepository.existsByEmailKey(User.keyOf(user.getEmail()))) {
+            throw new RecordConflictException("Email " + user.getEmail() + " has already been taken by other user.");
         }
-        if (userRepository.existsByUsername(user.getUsername())) {
-            throw new RecordConflictException(String.format("%s %s %s", "Username", user.getUsername(), "has already been taken by other user."));
+        if (userRepository.existsByUsernameKey(User.keyOf(user.getUsername()))) {
+            throw new RecordConflictException("Username " + user.getUsername() + " has already been taken by other user.");
         }
         User dao = userRepository.save(dtoToDao(user));
+        afterCommit(() -> userStatistics.recordCreated(dao.getCreatedAt(), dao.getDateOfBirth()));
         return daoToDto(dao);
     }
 
+    @Override
+    @Transactional
+    public long updateUser(Long id, UserDto user) {
+        if (user.getEmail() != null && userRepository.existsByEmailKeyAndIdNot(User.keyOf(user.getEmail()), id)) {
+            throw new RecordConflictException("Email " + user.getEmail() + " has already been taken by other user.");
+        }
+        if (user.getUsername() != null && userRepository.existsByUsernameKeyAndIdNot(User.keyOf(user.getUsername()), id)) {
+            throw new RecordConflictException("Username " + user.getUsername() + " has already been taken by other user.");
+        }
+        // the birth date the update replaces, read for the version the update is conditioned on
+        LocalDate previousDateOfBirth = user.getDateOfBirth() == null ? null
+                : userRepository.findDateOfBirthByIdAndVersion(id, user.getVersion()).orElse(null);
+        int updated;
+        try {
+            updated = userRepository.updateNonNullFields(id, user.getVersion(), dtoToDao(user));
+        } catch (DataIntegrityViolationException ex) {
+            throw new RecordConflictException("Username or email has already been taken by other user.");
+        }
+        if (updated == 0) {
+            if (!userRepository.existsById(id)) {
+                throw new ResourceNotFoundException("User " + id + " does not exist.");
+            }
+            throw new StaleRecordException("User " + id + " has been modified by another request.");
+        }
+        if (user.getDateOfBirth() != null) {
+            afterCommit(() -> userStatistics.recordDateOfBirthChanged(previousDateOfBirth, user.getDateOfBirth()));
+        }
+        return user.getVersion() + 1;
+    }
+
+    @Override
+    public UserStatisticsDto getUserStatistics() {
+        return userStatistics.snapshot(LocalDate.now());
+    }
+
+    // counters only follow writes that are visible to the next rebuild from the database
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private UserDto daoToDto(User dao) {
         return UserDto.builder()
                 .id(dao.getId())
@@ -56,6 +149,7 @@ public class UserServiceImpl implements UserService {
                 .firstName(dao.getFirstName())
                 .lastName(dao.getLastName())
                 .dateOfBirth(dao.getDateOfBirth())
+                .version(dao.getVersion())
                 .build();
     }
 
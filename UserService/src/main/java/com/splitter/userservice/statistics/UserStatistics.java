@@ -0,0 +1,174 @@
+package com.splitter.userservice.statistics;
+
+import com.splitter.userservice.model.UserStatisticsDto;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * User counters maintained on every committed signup, so that reading them does not depend on
+ * the number of users. Signups are kept per day for the last {@link #SIGNUP_DAYS} days and
+ * births per date, from which the exact ages of the distribution are derived when read.
+ * <p>
+ * The counters are per instance: writes served by other instances only show up after the next
+ * {@link UserStatisticsInitializer#rebuild() rebuild} from the database, which runs at startup,
+ * after each import and periodically. Changes recorded while a rebuild is aggregating are kept
+ * aside and added on top of its result. A write that committed before the aggregation but is
+ * only recorded during it is therefore counted twice until the next rebuild.
+ */
+@Component
+public class UserStatistics {
+
+    public static final int SIGNUP_DAYS = 30;
+
+    private static final int[] AGE_BUCKET_BOUNDS = {18, 25, 35, 45, 55, 65};
+    private static final String[] AGE_BUCKET_NAMES = {"0-17", "18-24", "25-34", "35-44", "45-54", "55-64", "65+"};
+
+    // records share the read lock, a reset takes the write lock to swap the counters
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Counters counters = new Counters();
+    private Counters recordedDuringRebuild;
+
+    public void recordCreated(LocalDateTime createdAt, LocalDate dateOfBirth) {
+        lock.readLock().lock();
+        try {
+            counters.created(createdAt, dateOfBirth);
+            if (recordedDuringRebuild != null) {
+                recordedDuringRebuild.created(createdAt, dateOfBirth);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void recordDateOfBirthChanged(LocalDate previous, LocalDate current) {
+        lock.readLock().lock();
+        try {
+            counters.dateOfBirthChanged(previous, current);
+            if (recordedDuringRebuild != null) {
+                recordedDuringRebuild.dateOfBirthChanged(previous, current);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts keeping the changes recorded from now on, to be added to the aggregates passed to
+     * the next {@link #reset(long, Map, Map)}. Call it before querying the aggregates.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            recordedDuringRebuild = new Counters();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortRebuild() {
+        lock.writeLock().lock();
+        try {
+            recordedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces all counters with values aggregated from the database, plus the changes recorded
+     * since {@link #beginRebuild()}.
+     */
+    public void reset(long total, Map<LocalDate, Long> signups, Map<LocalDate, Long> birthDates) {
+        Counters rebuilt = new Counters();
+        rebuilt.totalUsers.add(total);
+        signups.forEach((day, count) -> rebuilt.signupsPerDay.computeIfAbsent(day, key -> new LongAdder()).add(count));
+        birthDates.forEach((date, count) -> rebuilt.usersPerBirthDate.computeIfAbsent(date, key -> new LongAdder()).add(count));
+        lock.writeLock().lock();
+        try {
+            if (recordedDuringRebuild != null) {
+                rebuilt.add(recordedDuringRebuild);
+                recordedDuringRebuild = null;
+            }
+            counters = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public UserStatisticsDto snapshot(LocalDate today) {
+        Counters counters = this.counters;
+        Map<String, Long> signups = new LinkedHashMap<>();
+        for (int i = SIGNUP_DAYS - 1; i >= 0; i--) {
+            LocalDate day = today.minusDays(i);
+            LongAdder count = counters.signupsPerDay.get(day);
+            signups.put(day.toString(), count == null ? 0 : count.sum());
+        }
+
+        long[] buckets = new long[AGE_BUCKET_NAMES.length];
+        counters.usersPerBirthDate.forEach((date, count) -> buckets[ageBucket(Period.between(date, today).getYears())] += count.sum());
+        Map<String, Long> ageDistribution = new LinkedHashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            ageDistribution.put(AGE_BUCKET_NAMES[i], buckets[i]);
+        }
+
+        return UserStatisticsDto.builder()
+                .totalUsers(counters.totalUsers.sum())
+                .signupsPerDay(signups)
+                .ageDistribution(ageDistribution)
+                .build();
+    }
+
+    private int ageBucket(int age) {
+        int bucket = 0;
+        while (bucket < AGE_BUCKET_BOUNDS.length && age >= AGE_BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static final class Counters {
+
+        private final LongAdder totalUsers = new LongAdder();
+        private final ConcurrentMap<LocalDate, LongAdder> signupsPerDay = new ConcurrentHashMap<>();
+        private final ConcurrentMap<LocalDate, LongAdder> usersPerBirthDate = new ConcurrentHashMap<>();
+
+        private void created(LocalDateTime createdAt, LocalDate dateOfBirth) {
+            totalUsers.increment();
+            if (createdAt != null) {
+                signupsPerDay.computeIfAbsent(createdAt.toLocalDate(), day -> new LongAdder()).increment();
+                if (signupsPerDay.size() > 2 * SIGNUP_DAYS) {
+                    LocalDate cutoff = createdAt.toLocalDate().minusDays(SIGNUP_DAYS);
+                    signupsPerDay.keySet().removeIf(day -> day.isBefore(cutoff));
+                }
+            }
+            if (dateOfBirth != null) {
+                usersPerBirthDate.computeIfAbsent(dateOfBirth, date -> new LongAdder()).increment();
+            }
+        }
+
+        private void dateOfBirthChanged(LocalDate previous, LocalDate current) {
+            if (previous != null) {
+                usersPerBirthDate.computeIfAbsent(previous, date -> new LongAdder()).decrement();
+            }
+            if (current != null) {
+                usersPerBirthDate.computeIfAbsent(current, date -> new LongAdder()).increment();
+            }
+        }
+
+        private void add(Counters other) {
+            totalUsers.add(other.totalUsers.sum());
+            other.signupsPerDay.forEach((day, count) -> signupsPerDay.computeIfAbsent(day, key -> new LongAdder()).add(count.sum()));
+            other.usersPerBirthDate.forEach((date, count) -> usersPerBirthDate.computeIfAbsent(date, key -> new LongAdder()).add(count.sum()));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.splitter.userservice.statistics;
+
+import com.splitter.userservice.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rebuilds {@link UserStatistics} from the database at startup, before the web server accepts
+ * requests, and then every {@code userservice.statistics.rebuild-interval} (10 minutes by
+ * default) to pick up writes served by other instances.
+ */
+@Slf4j
+@Component
+public class UserStatisticsInitializer {
+
+    private UserRepository userRepository;
+    private UserStatistics userStatistics;
+
+    public UserStatisticsInitializer(UserRepository userRepository, UserStatistics userStatistics) {
+        this.userRepository = userRepository;
+        this.userStatistics = userStatistics;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    @Scheduled(fixedDelayString = "${userservice.statistics.rebuild-interval:PT10M}",
+            initialDelayString = "${userservice.statistics.rebuild-interval:PT10M}")
+    public void rebuild() {
+        userStatistics.beginRebuild();
+        try {
+            aggregate();
+        } catch (RuntimeException ex) {
+            userStatistics.abortRebuild();
+            throw ex;
+        }
+    }
+
+    private void aggregate() {
+        LocalDate since = LocalDate.now().minusDays(UserStatistics.SIGNUP_DAYS);
+        Map<LocalDate, Long> signups = new HashMap<>();
+        for (Object[] row : userRepository.countSignupsPerDaySince(since.atStartOfDay())) {
+            signups.put(((Date) row[0]).toLocalDate(), ((Number) row[1]).longValue());
+        }
+        Map<LocalDate, Long> birthDates = new HashMap<>();
+        for (Object[] row : userRepository.countUsersPerBirthDate()) {
+            birthDates.put(((Date) row[0]).toLocalDate(), ((Number) row[1]).longValue());
+        }
+        long total = userRepository.count();
+        userStatistics.reset(total, signups, birthDates);
+        log.info("User statistics rebuilt from {} users.", total);
+    }
+}
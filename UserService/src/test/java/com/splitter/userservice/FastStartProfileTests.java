@@ -0,0 +1,65 @@
+package com.splitter.userservice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitter.userservice.model.UserDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("faststart")
+@Sql(value = {"/data/delete-user-data.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class FastStartProfileTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void lazyContext_shouldCreateRequestPathBeansEagerly() {
+        assertThat(beanFactory.getBeanDefinition("userController").isLazyInit()).isFalse();
+        assertThat(beanFactory.getBeanDefinition("dataSource").isLazyInit()).isFalse();
+        assertThat(beanFactory.getBeanDefinition("healthEndpoint").isLazyInit()).isTrue();
+    }
+
+    @Test
+    public void lazyContext_createAndFindUser_shouldServeRequests() throws Exception {
+        String requestBody = mapper.writeValueAsString(UserDto.builder()
+                .email("fast.start@gmail.com")
+                .username("fast.start")
+                .firstName("Fast")
+                .lastName("Start")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .build());
+        String created = mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Long id = mapper.readValue(created, UserDto.class).getId();
+
+        String response = mockMvc.perform(get("/users/" + id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(mapper.readValue(response, UserDto.class).getUsername()).isEqualTo("fast.start");
+    }
+}
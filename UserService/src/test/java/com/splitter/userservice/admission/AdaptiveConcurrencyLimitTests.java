@@ -0,0 +1,65 @@
+package com.splitter.userservice.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimitTests {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    @Test
+    public void tryAcquire_limitReached_shouldReject() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, Duration.ofMillis(100), 0.5);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void release_fastRequestsAtFullUtilization_shouldIncreaseLimitUpToMax() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 3, Duration.ofMillis(100), 0.5);
+
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.tryAcquire();
+            limit.release(FAST);
+            limit.release(FAST);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    public void release_slowRequests_shouldDecreaseLimitDownToMin() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 2, 10, Duration.ofMillis(100), 0.5);
+
+        limit.tryAcquire();
+        limit.release(SLOW);
+        assertThat(limit.getLimit()).isEqualTo(4);
+
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire();
+            limit.release(SLOW);
+        }
+        assertThat(limit.getLimit()).isEqualTo(2);
+        assertThat(limit.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void release_fastRequestsAtLowUtilization_shouldKeepLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 20, Duration.ofMillis(100), 0.5);
+
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.release(FAST);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,165 @@
+package com.splitter.userservice.admission;
+
+import com.splitter.userservice.config.AdmissionControlConfiguration;
+import com.splitter.userservice.controller.UserController;
+import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Floods the list endpoint with slow requests alongside id lookups, both served by one
+ * bounded worker pool standing in for Tomcat's, and checks that the lookups only keep their
+ * p99 latency when the list bulkhead sheds the excess list traffic.
+ */
+@WebMvcTest(value = UserController.class, properties = {
+        "userservice.admission.enabled=true",
+        "userservice.admission.bulkheads.list.initial-limit=6",
+        "userservice.admission.bulkheads.list.min-limit=1",
+        "userservice.admission.bulkheads.list.max-limit=20",
+        "userservice.admission.bulkheads.list.latency-threshold=100ms",
+        "userservice.admission.bulkheads.list.backoff-ratio=0.5"
+})
+@Import(AdmissionControlConfiguration.class)
+public class AdmissionControlLoadTests {
+
+    private static final int WORKER_THREADS = 8;
+    private static final int LIST_REQUESTS = 20;
+    private static final int LOOKUP_REQUESTS = 200;
+    private static final long LOOKUP_P99_BUDGET_MILLIS = 250;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private UserService userService;
+
+    private AtomicLong listDelayMillis = new AtomicLong(500);
+
+    @Test
+    public void listSaturated_lookupsShouldKeepP99OnlyBehindAdaptiveBulkhead() throws Exception {
+        when(userService.findAllUsers()).thenAnswer(invocation -> {
+            Thread.sleep(listDelayMillis.get());
+            return Collections.emptyList();
+        });
+        when(userService.findUserById(anyLong())).thenReturn(UserDto.builder().id(1L).username("b.artem").build());
+        MockMvc unprotected = MockMvcBuilders.standaloneSetup(new UserController(userService)).build();
+
+        assertThat(flood(unprotected).lookupP99Millis).isGreaterThan(LOOKUP_P99_BUDGET_MILLIS);
+
+        // slow list calls make the limit back off from its initial value
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<MvcResult>> warmUp = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                warmUp.add(executor.submit(() -> mockMvc.perform(get("/users")).andReturn()));
+            }
+            for (Future<MvcResult> result : warmUp) {
+                assertThat(result.get(10, TimeUnit.SECONDS).getResponse().getStatus()).isEqualTo(200);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(listLimit()).isEqualTo(1);
+
+        FloodResult protectedFlood = flood(mockMvc);
+        assertThat(protectedFlood.lookupP99Millis).isLessThan(LOOKUP_P99_BUDGET_MILLIS);
+        assertThat(protectedFlood.rejectedLists).isGreaterThan(0);
+
+        // once list calls are fast again the limit grows back
+        listDelayMillis.set(0);
+        for (int i = 0; i < 5; i++) {
+            assertThat(mockMvc.perform(get("/users")).andReturn().getResponse().getStatus()).isEqualTo(200);
+        }
+        assertThat(listLimit()).isGreaterThan(1);
+    }
+
+    private FloodResult flood(MockMvc mvc) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(WORKER_THREADS);
+        List<Future<MvcResult>> listResults = new ArrayList<>();
+        List<Future<Long>> lookupLatencies = new ArrayList<>();
+        try {
+            for (int i = 0; i < LIST_REQUESTS; i++) {
+                listResults.add(workers.submit(() -> mvc.perform(get("/users")).andReturn()));
+            }
+            for (int i = 0; i < LOOKUP_REQUESTS; i++) {
+                // measured from submission, so time queued for a worker counts
+                long submitted = System.nanoTime();
+                lookupLatencies.add(workers.submit(() -> {
+                    MvcResult result = mvc.perform(get("/users/1")).andReturn();
+                    assertThat(result.getResponse().getStatus()).isEqualTo(200);
+                    return System.nanoTime() - submitted;
+                }));
+            }
+
+            List<Long> latencies = new ArrayList<>();
+            for (Future<Long> latency : lookupLatencies) {
+                latencies.add(latency.get(30, TimeUnit.SECONDS));
+            }
+            int rejected = 0;
+            for (Future<MvcResult> result : listResults) {
+                if (result.get(30, TimeUnit.SECONDS).getResponse().getStatus() == 503) {
+                    assertThat(result.get().getResponse().getHeader("Retry-After")).isEqualTo("1");
+                    rejected++;
+                }
+            }
+
+            Collections.sort(latencies);
+            long p99 = latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+            return new FloodResult(TimeUnit.NANOSECONDS.toMillis(p99), rejected);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private double listLimit() {
+        return meterRegistry.get("userservice.admission.limit").tag("bulkhead", "list").gauge().value();
+    }
+
+    private static final class FloodResult {
+
+        private final long lookupP99Millis;
+        private final int rejectedLists;
+
+        private FloodResult(long lookupP99Millis, int rejectedLists) {
+            this.lookupP99Millis = lookupP99Millis;
+            this.rejectedLists = rejectedLists;
+        }
+    }
+
+    @TestConfiguration
+    static class MeterRegistryConfiguration {
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.splitter.userservice.bulk;
+
+import com.splitter.userservice.domain.User;
+import com.splitter.userservice.exception.ResourceNotFoundException;
+import com.splitter.userservice.model.BulkJobResult;
+import com.splitter.userservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "userservice.bulk.enabled=true",
+        "userservice.bulk.directory=build/bulk-test"
+})
+@Sql(value = {"/data/user-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/data/delete-user-data.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class UserBulkServiceTests {
+
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Autowired
+    private BulkProperties properties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void export_csv_shouldWriteHeaderAndOneLinePerUser() throws Exception {
+        BulkJobResult result = userBulkService.export(BulkFormat.CSV);
+
+        List<String> lines = Files.readAllLines(properties.getDirectory().resolve(result.getFile()));
+        assertThat(result.getRowsWritten()).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("ID,USERNAME,EMAIL,FIRST_NAME,LAST_NAME,DATE_OF_BIRTH,CREATED_AT");
+        assertThat(lines.get(1)).contains("\"b.artem\",\"artem2549@gmail.com\",\"Artem\",\"Baranovskyi\",1994-08-13");
+    }
+
+    @Test
+    public void export_ndjson_shouldWriteOneObjectPerLine() throws Exception {
+        BulkJobResult result = userBulkService.export(BulkFormat.NDJSON);
+
+        List<String> lines = Files.readAllLines(properties.getDirectory().resolve(result.getFile()));
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("{\"id\":").contains("\"username\":\"b.artem\"");
+        assertThat(lines.get(1)).startsWith("{\"id\":").contains("\"username\":\"s.artem\"");
+    }
+
+    @Test
+    public void importCsv_fileWithConflicts_shouldInsertOnlyUniqueUsers() throws Exception {
+        Files.createDirectories(properties.getDirectory());
+        Path file = properties.getDirectory().resolve("import-test.csv");
+        Files.write(file, Arrays.asList(
+                "ID,USERNAME,EMAIL,FIRST_NAME,LAST_NAME,DATE_OF_BIRTH,CREATED_AT",
+                "1,\"b.alex\",\"alex2549@gmail.com\",\"Alex\",\"Baranovskyi\",1994-08-14,",
+                "2,\"b.artem\",\"other@gmail.com\",\"Artem\",\"Baranovskyi\",1994-08-13,",
+                "3,\"v.one\",\"same@gmail.com\",\"Vasa\",\"One\",1990-01-01,2019-12-18 10:00:00.0",
+                "4,\"v.two\",\"same@gmail.com\",\"Vasa\",\"Two\",1990-01-01,2019-12-18 10:00:00.0"
+        ), StandardCharsets.UTF_8);
+
+        BulkJobResult result = userBulkService.importCsv("import-test.csv");
+
+        assertThat(result.getRowsRead()).isEqualTo(4);
+        assertThat(result.getRowsWritten()).isEqualTo(1);
+        assertThat(result.getRowsSkipped()).isEqualTo(3);
+        assertThat(userRepository.existsByUsernameKey("b.alex")).isTrue();
+        assertThat(userRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    public void importCsv_keysDifferingOnlyInCase_shouldBeTreatedAsTaken() throws Exception {
+        Files.createDirectories(properties.getDirectory());
+        Path file = properties.getDirectory().resolve("import-case-test.csv");
+        Files.write(file, Arrays.asList(
+                "ID,USERNAME,EMAIL,FIRST_NAME,LAST_NAME,DATE_OF_BIRTH,CREATED_AT",
+                "1,\"b.alex\",\"Artem2549@Gmail.com\",\"Alex\",\"Baranovskyi\",1994-08-14,",
+                "2,\"B.Artem\",\"other@gmail.com\",\"Artem\",\"Baranovskyi\",1994-08-13,",
+                "3,\"v.one\",\"vasa@gmail.com\",\"Vasa\",\"One\",1990-01-01,",
+                "4,\"V.One\",\"vasa.two@gmail.com\",\"Vasa\",\"Two\",1990-01-01,",
+                "5,\"v.three\",\"vasa.three@gmail.com\",\"Vasa\",\"Three\",1990-01-01,"
+        ), StandardCharsets.UTF_8);
+
+        BulkJobResult result = userBulkService.importCsv("import-case-test.csv");
+
+        assertThat(result.getRowsWritten()).isEqualTo(1);
+        assertThat(userRepository.existsByUsernameKey("v.three")).isTrue();
+    }
+
+    @Test
+    public void importCsv_emailWithSeveralAts_shouldTakeDomainAfterLastAt() throws Exception {
+        Files.createDirectories(properties.getDirectory());
+        Path file = properties.getDirectory().resolve("import-domain-test.csv");
+        Files.write(file, Arrays.asList(
+                "ID,USERNAME,EMAIL,FIRST_NAME,LAST_NAME,DATE_OF_BIRTH,CREATED_AT",
+                "1,\"v.one\",\"\"\"vasa@home\"\"@Example.COM\",\"Vasa\",\"One\",1990-01-01,"
+        ), StandardCharsets.UTF_8);
+
+        userBulkService.importCsv("import-domain-test.csv");
+
+        assertThat(userRepository.findAll())
+                .filteredOn(user -> "v.one".equals(user.getUsername()))
+                .extracting(User::getEmailDomain)
+                .containsExactly("example.com");
+    }
+
+    @Test
+    public void importCsv_rowsBreakingUserConstraints_shouldBeRejectedSeparatelyFromDuplicates() throws Exception {
+        Files.createDirectories(properties.getDirectory());
+        Path file = properties.getDirectory().resolve("import-invalid-test.csv");
+        Files.write(file, Arrays.asList(
+                "ID,USERNAME,EMAIL,FIRST_NAME,LAST_NAME,DATE_OF_BIRTH,CREATED_AT",
+                "1,\"v.one\",\"vasa.one@gmail.com\",\"Vasa\",\"One\",1990-01-01,",
+                "2,,\"vasa.two@gmail.com\",\"Vasa\",\"Two\",1990-01-01,",
+                "3,\"v.three\",\"not-an-email\",\"Vasa\",\"Three\",1990-01-01,",
+                "4,\"v.four\",\"vasa.four@gmail.com\",\"Vasa\",\"Four\",2999-01-01,",
+                "5,\"v.five\",\"vasa.five@gmail.com\",\"Vasa\",\"Five\",1990-13-45,",
+                "6,\"v.six\",\"vasa.six@gmail.com\",\"Vasa\",,1990-01-01,",
+                "7,\"B.Artem\",\"vasa.seven@gmail.com\",\"Vasa\",\"Seven\",1990-01-01,"
+        ), StandardCharsets.UTF_8);
+
+        BulkJobResult result = userBulkService.importCsv("import-invalid-test.csv");
+
+        assertThat(result.getRowsRead()).isEqualTo(7);
+        assertThat(result.getRowsWritten()).isEqualTo(1);
+        assertThat(result.getRowsRejected()).isEqualTo(5);
+        assertThat(result.getRowsSkipped()).isEqualTo(1);
+        assertThat(result.getRejections()).containsExactly(
+                "Row 2: Username is missing.",
+                "Row 3: Email not-an-email is invalid.",
+                "Row 4: Date of birth 2999-01-01 is invalid.",
+                "Row 5: Date of birth 1990-13-45 is invalid.",
+                "Row 6: Last name is missing.");
+        assertThat(userRepository.existsByUsernameKey("v.one")).isTrue();
+    }
+
+    @Test
+    public void importCsv_fileOutsideBulkDirectory_shouldThrowResourceNotFoundException() {
+        assertThrows(ResourceNotFoundException.class, () -> userBulkService.importCsv("../build.gradle"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.splitter.userservice.cache;
+
+import com.splitter.userservice.model.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TwoTierUserCacheTests {
+
+    private AtomicLong clock;
+    private SharedUserCache sharedCache;
+    private CacheInvalidationBus invalidationBus;
+    private TwoTierUserCache instance1;
+    private TwoTierUserCache instance2;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new AtomicLong();
+        sharedCache = new InMemorySharedUserCache(Duration.ofMinutes(5), 100);
+        invalidationBus = new InProcessCacheInvalidationBus();
+        instance1 = new TwoTierUserCache(new ExpiringCache<>(Duration.ofSeconds(5), 100, clock::get),
+                sharedCache, invalidationBus);
+        instance2 = new TwoTierUserCache(new ExpiringCache<>(Duration.ofSeconds(5), 100, clock::get),
+                sharedCache, invalidationBus);
+    }
+
+    @Test
+    public void get_userPutByOtherInstance_shouldReturnUserFromSharedTier() {
+        instance1.put(user(1L, "b.artem"));
+
+        assertThat(instance2.get(1L).getUsername()).isEqualTo("b.artem");
+    }
+
+    @Test
+    public void invalidate_userCachedOnBothInstances_shouldEvictNearCacheOfOtherInstance() {
+        instance1.put(user(1L, "b.artem"));
+        instance2.get(1L);
+
+        instance1.invalidate(1L);
+
+        assertThat(instance1.get(1L)).isNull();
+        assertThat(instance2.get(1L)).isNull();
+    }
+
+    @Test
+    public void put_versionLoadedBeforeInvalidation_shouldNotBeCachedOnAnyInstance() {
+        UserDto loadedBeforeWrite = user(1L, "b.artem");
+        loadedBeforeWrite.setVersion(0L);
+
+        instance2.invalidate(1L, 1L);
+        instance1.put(loadedBeforeWrite);
+
+        assertThat(instance1.get(1L)).isNull();
+        assertThat(instance2.get(1L)).isNull();
+    }
+
+    @Test
+    public void put_versionWrittenAfterInvalidation_shouldBeCached() {
+        UserDto loadedAfterWrite = user(1L, "s.artem");
+        loadedAfterWrite.setVersion(1L);
+
+        instance2.invalidate(1L, 1L);
+        instance1.put(loadedAfterWrite);
+
+        assertThat(instance2.get(1L).getUsername()).isEqualTo("s.artem");
+    }
+
+    @Test
+    public void get_nearEntryOlderThanTimeToLive_shouldNotBeServed() {
+        ExpiringCache<Long, UserDto> nearCache = new ExpiringCache<>(Duration.ofSeconds(5), 100, clock::get);
+        nearCache.put(1L, user(1L, "b.artem"));
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertThat(nearCache.get(1L)).isNull();
+        assertThat(nearCache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void put_cacheIsFull_shouldStayWithinMaxEntries() {
+        ExpiringCache<Long, UserDto> nearCache = new ExpiringCache<>(Duration.ofSeconds(5), 2, clock::get);
+        nearCache.put(1L, user(1L, "a"));
+        nearCache.put(2L, user(2L, "b"));
+        nearCache.put(3L, user(3L, "c"));
+
+        assertThat(nearCache.size()).isEqualTo(2);
+        assertThat(nearCache.get(3L)).isNotNull();
+    }
+
+    @Test
+    public void put_cacheIsFull_shouldEvictLeastRecentlyUsedEntry() {
+        ExpiringCache<Long, UserDto> nearCache = new ExpiringCache<>(Duration.ofSeconds(5), 2, clock::get);
+        nearCache.put(1L, user(1L, "a"));
+        nearCache.put(2L, user(2L, "b"));
+        nearCache.get(1L);
+        nearCache.put(3L, user(3L, "c"));
+
+        assertThat(nearCache.get(1L)).isNotNull();
+        assertThat(nearCache.get(2L)).isNull();
+        assertThat(nearCache.get(3L)).isNotNull();
+    }
+
+    private UserDto user(Long id, String username) {
+        return UserDto.builder()
+                .id(id)
+                .username(username)
+                .build();
+    }
+}
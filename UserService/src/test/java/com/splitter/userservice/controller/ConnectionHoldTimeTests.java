@@ -0,0 +1,129 @@
+package com.splitter.userservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitter.userservice.model.UserDto;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that no JDBC connection is checked out of the pool while a response body is written.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ConnectionHoldTimeTests.ActiveConnectionsProbe.class)
+@Sql(value = {"/data/user-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/data/delete-user-data.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class ConnectionHoldTimeTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ActiveConnectionsProbe probe;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    public void setUp() {
+        probe.reset();
+    }
+
+    @Test
+    public void findUsers_shouldReleaseConnectionBeforeWritingResponse() throws Exception {
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        assertThat(probe.getWrites()).isEqualTo(1);
+        assertThat(probe.getMaxActiveConnections()).isEqualTo(0);
+    }
+
+    @Test
+    public void findById_shouldReleaseConnectionBeforeWritingResponse() throws Exception {
+        String users = mockMvc.perform(get("/users")).andReturn().getResponse().getContentAsString();
+        Long id = mapper.readValue(users, UserDto[].class)[0].getId();
+
+        mockMvc.perform(get("/users/" + id)).andExpect(status().isOk());
+
+        assertThat(probe.getWrites()).isEqualTo(2);
+        assertThat(probe.getMaxActiveConnections()).isEqualTo(0);
+    }
+
+    @Test
+    public void createUser_shouldReleaseConnectionBeforeWritingResponse() throws Exception {
+        String requestBody = mapper.writeValueAsString(UserDto.builder()
+                .email("alex2549@gmail.com")
+                .username("b.alex")
+                .firstName("Alex")
+                .lastName("Baranovskyi")
+                .dateOfBirth(LocalDate.of(1994, 8, 14))
+                .build());
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk());
+
+        assertThat(probe.getWrites()).isEqualTo(1);
+        assertThat(probe.getMaxActiveConnections()).isEqualTo(0);
+    }
+
+    @ControllerAdvice
+    static class ActiveConnectionsProbe implements ResponseBodyAdvice<Object> {
+
+        private final HikariDataSource dataSource;
+        private final AtomicInteger writes = new AtomicInteger();
+        private final AtomicInteger maxActiveConnections = new AtomicInteger();
+
+        ActiveConnectionsProbe(DataSource dataSource) throws Exception {
+            this.dataSource = dataSource.unwrap(HikariDataSource.class);
+        }
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            writes.incrementAndGet();
+            maxActiveConnections.accumulateAndGet(dataSource.getHikariPoolMXBean().getActiveConnections(), Math::max);
+            return body;
+        }
+
+        void reset() {
+            writes.set(0);
+            maxActiveConnections.set(0);
+        }
+
+        int getWrites() {
+            return writes.get();
+        }
+
+        int getMaxActiveConnections() {
+            return maxActiveConnections.get();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.splitter.userservice.controller;
+
+import com.splitter.userservice.exception.RecordConflictException;
+import com.splitter.userservice.exception.ResourceNotFoundException;
+import com.splitter.userservice.model.ErrorResponse;
+import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.validation.BindException;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(UserController.class)
+public class GlobalExceptionHandlerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GlobalExceptionHandler exceptionHandler;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    public void handleResourceNotFoundException_shouldCountNotFoundError() throws Exception {
+        when(userService.findUserById(100500L)).thenThrow(new ResourceNotFoundException("User 100500 does not exist."));
+        double before = errorCount("not_found");
+
+        mockMvc.perform(get("/users/100500"))
+                .andExpect(status().isNotFound());
+
+        assertThat(errorCount("not_found")).isEqualTo(before + 1);
+    }
+
+    @Test
+    public void handleRecordConflictException_shouldCountConflictError() throws Exception {
+        when(userService.createUser(any(UserDto.class))).thenThrow(new RecordConflictException("Email is taken."));
+        double before = errorCount("conflict");
+
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"b.artem\",\"email\":\"artem2549@gmail.com\",\"firstName\":\"Artem\","
+                        + "\"lastName\":\"Baranovskyi\",\"dateOfBirth\":\"" + LocalDate.of(1994, 8, 13) + "\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(errorCount("conflict")).isEqualTo(before + 1);
+    }
+
+    @Test
+    public void handleMethodArgumentNotValid_shouldCountInvalidParameterError() throws Exception {
+        double before = errorCount("invalid_parameter");
+
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"b.artem\",\"email\":\"artem2549\",\"firstName\":\"Artem\","
+                        + "\"lastName\":\"Baranovskyi\",\"dateOfBirth\":\"" + LocalDate.of(1994, 8, 13) + "\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Email artem2549 is invalid."));
+
+        assertThat(errorCount("invalid_parameter")).isEqualTo(before + 1);
+    }
+
+    @Test
+    public void handleBindException_globalErrorOnly_shouldFallBackToGlobalErrorMessage() {
+        BindException ex = new BindException(new Object(), "userSearchCriteria");
+        ex.reject("dateOfBirthRange", "Date of birth range is invalid.");
+        double before = errorCount("invalid_parameter");
+
+        ResponseEntity<Object> response = exceptionHandler.handleBindException(ex, new HttpHeaders(),
+                HttpStatus.BAD_REQUEST, new ServletWebRequest(new MockHttpServletRequest()));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(((ErrorResponse) response.getBody()).getMessage()).isEqualTo("Date of birth range is invalid.");
+        assertThat(errorCount("invalid_parameter")).isEqualTo(before + 1);
+    }
+
+    private double errorCount(String type) {
+        return meterRegistry.counter("userservice.errors", "type", type).count();
+    }
+
+    @TestConfiguration
+    static class MeterRegistryConfiguration {
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
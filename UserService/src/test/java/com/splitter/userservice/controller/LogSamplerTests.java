@@ -0,0 +1,34 @@
+package com.splitter.userservice.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogSamplerTests {
+
+    private AtomicLong clock = new AtomicLong();
+    private LogSampler logSampler = new LogSampler(Duration.ofSeconds(10), clock::get);
+
+    @Test
+    public void tryAcquire_calledWithinInterval_shouldLetOnlyFirstCallThrough() {
+        assertThat(logSampler.tryAcquire()).isTrue();
+        assertThat(logSampler.tryAcquire()).isFalse();
+        assertThat(logSampler.tryAcquire()).isFalse();
+        assertThat(logSampler.drainSuppressed()).isEqualTo(2);
+    }
+
+    @Test
+    public void tryAcquire_intervalElapsed_shouldLetNextCallThrough() {
+        logSampler.tryAcquire();
+        logSampler.tryAcquire();
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(logSampler.tryAcquire()).isTrue();
+        assertThat(logSampler.drainSuppressed()).isEqualTo(1);
+        assertThat(logSampler.drainSuppressed()).isEqualTo(0);
+    }
+}
@@ -1,22 +1,29 @@
 package com.splitter.userservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitter.userservice.domain.User;
 import com.splitter.userservice.model.ErrorResponse;
 import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.model.UserStatisticsDto;
+import com.splitter.userservice.repository.UserSort;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -41,6 +48,82 @@ public class UserControllerIntegrationTests {
         assertThat(result.length).isEqualTo(2);
     }
 
+    @Test
+    public void shouldReturnUsersFilteredByLastName() throws Exception {
+        String response = mockMvc.perform(get("/users").param("lastName", "Sushko"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andReturn().getResponse().getContentAsString();
+
+        UserDto[] result = mapper.readValue(response, UserDto[].class);
+        assertThat(result).extracting(UserDto::getUsername).containsExactly("s.artem");
+    }
+
+    @Test
+    public void shouldReturnUsersFilteredByEmailDomainAndDateOfBirth() throws Exception {
+        String response = mockMvc.perform(get("/users")
+                .param("emailDomain", "GMAIL.com")
+                .param("dateOfBirthFrom", "1994-09-01")
+                .param("dateOfBirthTo", "1994-12-31"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        UserDto[] result = mapper.readValue(response, UserDto[].class);
+        assertThat(result).extracting(UserDto::getUsername).containsExactly("s.artem");
+    }
+
+    @Test
+    public void shouldFollowNextLinkThroughSortedPages() throws Exception {
+        MvcResult firstPage = mockMvc.perform(get("/users").param("sort", "-username").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LINK))
+                .andReturn();
+        UserDto[] first = mapper.readValue(firstPage.getResponse().getContentAsString(), UserDto[].class);
+        String link = firstPage.getResponse().getHeader(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        MvcResult secondPage = mockMvc.perform(get(next))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andReturn();
+        UserDto[] second = mapper.readValue(secondPage.getResponse().getContentAsString(), UserDto[].class);
+
+        assertThat(first).extracting(UserDto::getUsername).containsExactly("s.artem");
+        assertThat(second).extracting(UserDto::getUsername).containsExactly("b.artem");
+    }
+
+    @Test
+    public void shouldReturnErrorResponseIfCursorIsInvalid() throws Exception {
+        String response = mockMvc.perform(get("/users").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString();
+
+        ErrorResponse errorResponse = mapper.readValue(response, ErrorResponse.class);
+        assertThat(errorResponse.getMessage()).isEqualTo("Cursor not-a-cursor is invalid.");
+    }
+
+    @Test
+    public void shouldReturnErrorResponseIfCursorBelongsToAnotherSort() throws Exception {
+        String cursor = UserSort.parse("-username").cursorOf(User.builder().id(2L).username("s.artem").build());
+
+        String response = mockMvc.perform(get("/users").param("sort", "lastName").param("after", cursor))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString();
+
+        ErrorResponse errorResponse = mapper.readValue(response, ErrorResponse.class);
+        assertThat(errorResponse.getMessage()).isEqualTo("Cursor " + cursor + " belongs to sort -username, not lastName.");
+    }
+
+    @Test
+    public void shouldReturnErrorResponseIfNoFilterIndexServesSort() throws Exception {
+        String response = mockMvc.perform(get("/users").param("lastName", "Sushko").param("sort", "dateOfBirth"))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString();
+
+        ErrorResponse errorResponse = mapper.readValue(response, ErrorResponse.class);
+        assertThat(errorResponse.getMessage()).isEqualTo("Sort dateOfBirth is not supported with the given filters.");
+    }
+
     @Test
     public void shouldReturnOneUserById() throws Exception {
         String response = mockMvc.perform(get("/users/1"))
@@ -144,4 +227,136 @@ public class UserControllerIntegrationTests {
         ErrorResponse errorResponse = mapper.readValue(response, ErrorResponse.class);
         assertThat(errorResponse.getMessage()).isEqualTo("Username b.artem has already been taken by other user.");
     }
+
+    @Test
+    public void shouldUpdateOnlyProvidedFieldsAndIncrementVersion() throws Exception {
+        UserDto existing = findUserByUsername("s.artem");
+        String requestBody = mapper.writeValueAsString(UserDto.builder()
+                .lastName("Baranovskyi")
+                .version(existing.getVersion())
+                .build());
+        mockMvc.perform(patch("/users/" + existing.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isNoContent());
+
+        String response = mockMvc.perform(get("/users/" + existing.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        UserDto updated = mapper.readValue(response, UserDto.class);
+        assertThat(updated.getLastName()).isEqualTo("Baranovskyi");
+        assertThat(updated.getEmail()).isEqualTo("s.artem2549@gmail.com");
+        assertThat(updated.getVersion()).isEqualTo(existing.getVersion() + 1);
+    }
+
+    @Test
+    public void shouldReturnConflictIfUpdateIsBasedOnStaleVersion() throws Exception {
+        UserDto existing = findUserByUsername("s.artem");
+        String requestBody = mapper.writeValueAsString(UserDto.builder()
+                .firstName("Alex")
+                .version(existing.getVersion())
+                .build());
+        mockMvc.perform(patch("/users/" + existing.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(patch("/users/" + existing.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void shouldReturnErrorResponseIfUpdateUserWithDuplicateUsername() throws Exception {
+        UserDto existing = findUserByUsername("s.artem");
+        String requestBody = mapper.writeValueAsString(UserDto.builder()
+                .username("b.artem")
+                .version(existing.getVersion())
+                .build());
+        String response = mockMvc.perform(patch("/users/" + existing.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString();
+
+        ErrorResponse errorResponse = mapper.readValue(response, ErrorResponse.class);
+        assertThat(errorResponse.getMessage()).isEqualTo("Username b.artem has already been taken by other user.");
+    }
+
+    @Test
+    public void shouldReturnErrorResponseIfCreateUserWithUsernameDifferingOnlyInCase() throws Exception {
+        String requestBody = mapper.writeValueAsString(UserDto.builder()
+                .email("alex@gmail.com")
+                .username("B.Artem")
+                .firstName("Alex")
+                .lastName("Baranovskyi")
+                .dateOfBirth(LocalDate.of(1994, 8, 14))
+                .build());
+        String response = mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString();
+
+        ErrorResponse errorResponse = mapper.readValue(response, ErrorResponse.class);
+        assertThat(errorResponse.getMessage()).isEqualTo("Username B.Artem has already been taken by other user.");
+    }
+
+    @Test
+    public void shouldReturnErrorResponseIfUpdateUserWithEmailDifferingOnlyInCase() throws Exception {
+        UserDto existing = findUserByUsername("s.artem");
+        String requestBody = mapper.writeValueAsString(UserDto.builder()
+                .email("Artem2549@Gmail.com")
+                .version(existing.getVersion())
+                .build());
+        String response = mockMvc.perform(patch("/users/" + existing.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString();
+
+        ErrorResponse errorResponse = mapper.readValue(response, ErrorResponse.class);
+        assertThat(errorResponse.getMessage()).isEqualTo("Email Artem2549@Gmail.com has already been taken by other user.");
+    }
+
+    @Test
+    public void shouldCountCreatedUserInStatistics() throws Exception {
+        UserStatisticsDto before = findUserStatistics();
+        String requestBody = mapper.writeValueAsString(UserDto.builder()
+                .email("alex2549@gmail.com")
+                .username("b.alex")
+                .firstName("Alex")
+                .lastName("Baranovskyi")
+                .dateOfBirth(LocalDate.of(1994, 8, 14))
+                .build());
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isOk());
+
+        UserStatisticsDto after = findUserStatistics();
+        String today = LocalDate.now().toString();
+        assertThat(after.getTotalUsers()).isEqualTo(before.getTotalUsers() + 1);
+        assertThat(after.getSignupsPerDay().get(today)).isEqualTo(before.getSignupsPerDay().get(today) + 1);
+    }
+
+    private UserStatisticsDto findUserStatistics() throws Exception {
+        String response = mockMvc.perform(get("/users/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(response, UserStatisticsDto.class);
+    }
+
+    private UserDto findUserByUsername(String username) throws Exception {
+        String response = mockMvc.perform(get("/users"))
+                .andReturn().getResponse().getContentAsString();
+        for (UserDto user : mapper.readValue(response, UserDto[].class)) {
+            if (username.equals(user.getUsername())) {
+                return user;
+            }
+        }
+        throw new IllegalStateException("User " + username + " is not in test data.");
+    }
 }
@@ -4,28 +4,37 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.splitter.userservice.exception.RecordConflictException;
 import com.splitter.userservice.exception.ResourceNotFoundException;
+import com.splitter.userservice.exception.StaleRecordException;
 import com.splitter.userservice.model.ErrorResponse;
 import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.model.UserFilter;
+import com.splitter.userservice.model.UserPageDto;
+import com.splitter.userservice.model.UserStatisticsDto;
 import com.splitter.userservice.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -85,6 +94,30 @@ public class UserControllerMockMvcTest {
         assertEquals(LocalDate.of(1994, 9, 13), user2.getDateOfBirth());
     }
 
+    @Test
+    public void findUsers_nextPageExists_shouldReturnLinkToNextPage() throws Exception {
+        UserFilter filter = UserFilter.builder().lastName("Sushko").limit(1).build();
+        when(userService.findUsers(filter)).thenReturn(UserPageDto.builder()
+                .users(Collections.singletonList(UserDto.builder().id(2L).username("s.artem").lastName("Sushko").build()))
+                .nextCursor("Mg")
+                .build());
+
+        mockMvc.perform(get("/users?lastName=Sushko&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "<http://localhost/users?lastName=Sushko&limit=1&after=Mg>; rel=\"next\""));
+    }
+
+    @Test
+    public void findUsers_limitTooLarge_shouldReturnErrorResponse() throws Exception {
+        String response = mockMvc.perform(get("/users?limit=5000"))
+                .andExpect(status().isBadRequest())
+                .andReturn().getResponse().getContentAsString();
+
+        ErrorResponse errorResponse = objectMapper.readValue(response, ErrorResponse.class);
+        assertEquals("Limit 5000 is invalid.", errorResponse.getMessage());
+    }
+
     @Test
     public void findUserById_userExists_shouldReturnResponseWithBody() throws Exception {
         when(userService.findUserById(1L)).thenReturn(UserDto.builder()
@@ -243,4 +276,74 @@ public class UserControllerMockMvcTest {
         assertThat(errorResponse.getMessage()).isEqualTo("Username b.alex has already been taken by other user.");
         assertThat(errorResponse.getTimestamp()).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void updateUser_validRequestBody_shouldReturnNoContentWithNewVersion() throws Exception {
+        when(userService.updateUser(eq(1L), any(UserDto.class))).thenReturn(4L);
+
+        String requestBody = objectMapper.writeValueAsString(UserDto.builder()
+                .lastName("Sushko")
+                .version(3L)
+                .build());
+        mockMvc.perform(patch("/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    public void updateUser_versionMissing_shouldReturnErrorResponse() throws Exception {
+        String requestBody = objectMapper.writeValueAsString(UserDto.builder()
+                .lastName("Sushko")
+                .build());
+        String response = mockMvc.perform(patch("/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        ErrorResponse errorResponse = objectMapper.readValue(response, ErrorResponse.class);
+        assertThat(errorResponse.getMessage()).isEqualTo("Version null is invalid.");
+    }
+
+    @Test
+    public void updateUser_versionIsStale_shouldReturnConflictResponse() throws Exception {
+        when(userService.updateUser(eq(1L), any(UserDto.class)))
+                .thenThrow(new StaleRecordException("User 1 has been modified by another request."));
+
+        String requestBody = objectMapper.writeValueAsString(UserDto.builder()
+                .lastName("Sushko")
+                .version(2L)
+                .build());
+        String response = mockMvc.perform(patch("/users/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        ErrorResponse errorResponse = objectMapper.readValue(response, ErrorResponse.class);
+        assertThat(errorResponse.getMessage()).isEqualTo("User 1 has been modified by another request.");
+    }
+
+    @Test
+    public void findUserStatistics_shouldReturnStatisticsResponse() throws Exception {
+        when(userService.getUserStatistics()).thenReturn(UserStatisticsDto.builder()
+                .totalUsers(2)
+                .signupsPerDay(Collections.singletonMap("2019-12-18", 2L))
+                .ageDistribution(Collections.singletonMap("25-34", 2L))
+                .build());
+
+        String response = mockMvc.perform(get("/users/stats"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        UserStatisticsDto result = objectMapper.readValue(response, UserStatisticsDto.class);
+        assertEquals(2L, result.getTotalUsers());
+        assertEquals(2L, result.getSignupsPerDay().get("2019-12-18"));
+        assertEquals(2L, result.getAgeDistribution().get("25-34"));
+    }
+}
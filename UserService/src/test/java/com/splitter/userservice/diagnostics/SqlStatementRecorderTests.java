@@ -0,0 +1,57 @@
+package com.splitter.userservice.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlStatementRecorderTests {
+
+    @Test
+    public void redact_statementWithLiterals_shouldReplaceValuesWithPlaceholders() {
+        String sql = SqlStatementRecorder.redact("select * from users where email = 'a''b@gmail.com' and id = 42");
+
+        assertThat(sql).isEqualTo("select * from users where email = ? and id = ?");
+    }
+
+    @Test
+    public void capture_statementsRecorded_shouldCountOnlyCapturedWork() {
+        SqlStatementRecorder recorder = new SqlStatementRecorder(Duration.ofSeconds(1));
+        recorder.recordStatement("select 1", 1_000);
+
+        SqlStatistics statistics = recorder.capture(() -> {
+            recorder.recordConnection();
+            recorder.recordStatement("select 1", 1_000);
+            recorder.recordStatement("select 2", 1_000);
+        });
+
+        assertThat(statistics.getConnectionCount()).isEqualTo(1);
+        assertThat(statistics.getStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void propagate_taskOnPoolThread_shouldRecordIntoCallersUnitOfWork() throws Exception {
+        SqlStatementRecorder recorder = new SqlStatementRecorder(Duration.ofSeconds(1));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            SqlStatistics statistics = recorder.capture(() -> {
+                Future<?> read = executor.submit(recorder.propagate(() -> recorder.recordStatement("select 1", 1_000)));
+                try {
+                    read.get(1, TimeUnit.SECONDS);
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+            executor.submit(() -> recorder.recordStatement("select 2", 1_000)).get(1, TimeUnit.SECONDS);
+
+            assertThat(statistics.getStatementCount()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
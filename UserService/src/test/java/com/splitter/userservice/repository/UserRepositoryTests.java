@@ -6,9 +6,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
@@ -42,6 +45,27 @@ public class UserRepositoryTests {
         });
     }
 
+    @Test
+    public void save_userWithSameEmailInOtherCaseExists_shouldThrowException() throws Exception {
+        testEntityManager.persist(User.builder()
+                .firstName("Artem")
+                .lastName("Baranovskyi")
+                .dateOfBirth(LocalDate.of(1994, 8, 13))
+                .username("b.artem")
+                .email("artem2549@gmail.com")
+                .build());
+
+        assertThrows(DataIntegrityViolationException.class, () -> {
+            userRepository.save(User.builder()
+                    .firstName("Vasa")
+                    .lastName("Baranovskyi")
+                    .dateOfBirth(LocalDate.of(1994, 8, 13))
+                    .username("v.baranovskyi")
+                    .email("Artem2549@Gmail.com")
+                    .build());
+        });
+    }
+
     @Test
     public void save_userWithSameUsernameExists_shouldThrowException() throws Exception {
         testEntityManager.persist(User.builder()
@@ -62,4 +86,26 @@ public class UserRepositoryTests {
                     .build());
         });
     }
+
+    @Test
+    public void findAll_pagedByKeyset_shouldReturnUsersAfterCursor() throws Exception {
+        for (String username : new String[]{"c.artem", "a.artem", "b.artem"}) {
+            testEntityManager.persist(User.builder()
+                    .firstName("Artem")
+                    .lastName("Baranovskyi")
+                    .dateOfBirth(LocalDate.of(1994, 8, 13))
+                    .username(username)
+                    .email(username + "@Gmail.com")
+                    .build());
+        }
+        UserSort sort = UserSort.parse("username");
+        Specification<User> specification = Specification.where(UserSpecifications.emailDomainEquals("gmail.com"));
+
+        List<User> firstPage = userRepository.findAll(specification, sort.toSort(), 2);
+        List<User> secondPage = userRepository.findAll(
+                specification.and(UserSpecifications.after(sort, sort.cursorOf(firstPage.get(1)))), sort.toSort(), 2);
+
+        assertThat(firstPage).extracting(User::getUsername).containsExactly("a.artem", "b.artem");
+        assertThat(secondPage).extracting(User::getUsername).containsExactly("c.artem");
+    }
 }
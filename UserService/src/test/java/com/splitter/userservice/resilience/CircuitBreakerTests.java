@@ -0,0 +1,62 @@
+package com.splitter.userservice.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTests {
+
+    private AtomicLong clock = new AtomicLong();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker(2, Duration.ofSeconds(10), clock::get);
+
+    @Test
+    public void onFailure_thresholdReached_shouldOpenAndRejectRequests() {
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    public void allowRequest_openDurationPassed_shouldLetSingleTrialThrough() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(circuitBreaker.allowRequest()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    public void onSuccess_trialSucceeded_shouldCloseAndReportRecovery() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        circuitBreaker.allowRequest();
+
+        assertThat(circuitBreaker.onSuccess()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.onSuccess()).isFalse();
+    }
+
+    @Test
+    public void onFailure_trialFailed_shouldReopen() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        circuitBreaker.allowRequest();
+
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.allowRequest()).isFalse();
+    }
+}
@@ -0,0 +1,60 @@
+package com.splitter.userservice.resilience;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitter.userservice.model.UserDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "userservice.resilience.enabled=true",
+        "userservice.resilience.read-timeout=200ms",
+        "userservice.resilience.latency-injection.enabled=true"
+})
+@AutoConfigureMockMvc
+@Sql(value = {"/data/user-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/data/delete-user-data.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class ResilienceIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DatabaseLatencyInjector latencyInjector;
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @AfterEach
+    public void tearDown() {
+        latencyInjector.setLatency(Duration.ZERO);
+    }
+
+    @Test
+    public void shouldServeLastKnownUserWithWarningWhileDatabaseIsSlow() throws Exception {
+        String users = mockMvc.perform(get("/users"))
+                .andReturn().getResponse().getContentAsString();
+        Long id = mapper.readValue(users, UserDto[].class)[0].getId();
+        mockMvc.perform(get("/users/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Warning"));
+
+        latencyInjector.setLatency(Duration.ofSeconds(1));
+        String response = mockMvc.perform(get("/users/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Warning", "110 - \"Response is Stale\""))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(mapper.readValue(response, UserDto.class).getId()).isEqualTo(id);
+    }
+}
@@ -0,0 +1,181 @@
+package com.splitter.userservice.resilience;
+
+import com.splitter.userservice.exception.DatabaseUnavailableException;
+import com.splitter.userservice.exception.InvalidRequestException;
+import com.splitter.userservice.exception.ServiceBusyException;
+import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.model.UserFilter;
+import com.splitter.userservice.model.UserPageDto;
+import com.splitter.userservice.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+public class ResilientUserServiceTests {
+
+    private AtomicLong clock;
+    private UserService delegate;
+    private ResilientUserService userService;
+
+    @BeforeEach
+    public void setUp() {
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setReadTimeout(Duration.ofMillis(100));
+        properties.setListReadTimeout(Duration.ofMillis(100));
+        clock = new AtomicLong();
+        delegate = mock(UserService.class);
+        userService = new ResilientUserService(delegate,
+                new CircuitBreaker(2, Duration.ofSeconds(10), clock::get),
+                new CircuitBreaker(2, Duration.ofSeconds(10), clock::get), properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        userService.shutdown();
+    }
+
+    @Test
+    public void findUserById_readTimesOut_shouldReturnLastKnownUserFlaggedAsStale() {
+        when(delegate.findUserById(1L))
+                .thenReturn(user(1L, "Baranovskyi"))
+                .thenAnswer(invocation -> slowly(user(1L, "Sushko")));
+
+        assertThat(userService.findUserById(1L).isStale()).isFalse();
+        UserDto result = userService.findUserById(1L);
+
+        assertThat(result.isStale()).isTrue();
+        assertThat(result.getLastName()).isEqualTo("Baranovskyi");
+    }
+
+    @Test
+    public void findUserById_readFailsWithoutLastKnownUser_shouldThrowDatabaseUnavailableException() {
+        when(delegate.findUserById(1L)).thenThrow(new IllegalStateException("database is down"));
+
+        assertThrows(DatabaseUnavailableException.class, () -> userService.findUserById(1L));
+    }
+
+    @Test
+    public void findUserById_circuitOpen_shouldNotCallDatabase() {
+        when(delegate.findUserById(1L))
+                .thenReturn(user(1L, "Baranovskyi"))
+                .thenThrow(new IllegalStateException("database is down"));
+        userService.findUserById(1L);
+        userService.findUserById(1L);
+        userService.findUserById(1L);
+
+        UserDto result = userService.findUserById(1L);
+
+        assertThat(userService.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(result.isStale()).isTrue();
+        verify(delegate, times(3)).findUserById(1L);
+    }
+
+    @Test
+    public void findUserById_databaseRecovered_shouldRefreshUsersServedStale() {
+        when(delegate.findUserById(1L))
+                .thenReturn(user(1L, "Baranovskyi"))
+                .thenThrow(new IllegalStateException("database is down"))
+                .thenThrow(new IllegalStateException("database is down"))
+                .thenReturn(user(1L, "Sushko"));
+        when(delegate.findUserById(2L)).thenReturn(user(2L, "Sushko"));
+        userService.findUserById(1L);
+        userService.findUserById(1L);
+        userService.findUserById(1L);
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        userService.findUserById(2L);
+
+        verify(delegate, timeout(1000).times(4)).findUserById(1L);
+        assertThat(userService.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void findAllUsers_listReadsTimeOut_shouldNotOpenCircuitOfLookups() {
+        when(delegate.findAllUsers()).thenAnswer(invocation -> slowly(Collections.emptyList()));
+        when(delegate.findUserById(1L)).thenReturn(user(1L, "Baranovskyi"));
+        for (int i = 0; i < 3; i++) {
+            assertThrows(DatabaseUnavailableException.class, () -> userService.findAllUsers());
+        }
+
+        UserDto result = userService.findUserById(1L);
+
+        assertThat(userService.getListCircuitBreakerState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(userService.getCircuitBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(result.isStale()).isFalse();
+    }
+
+    @Test
+    public void findUsers_invalidRequestAsHalfOpenTrial_shouldLetNextListThrough() {
+        UserPageDto page = UserPageDto.builder().users(Collections.emptyList()).build();
+        when(delegate.findAllUsers()).thenAnswer(invocation -> slowly(Collections.emptyList()));
+        when(delegate.findUsers(any(UserFilter.class)))
+                .thenThrow(new InvalidRequestException("Cursor not-a-cursor is invalid."))
+                .thenReturn(page);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(DatabaseUnavailableException.class, () -> userService.findAllUsers());
+        }
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThrows(InvalidRequestException.class,
+                () -> userService.findUsers(UserFilter.builder().after("not-a-cursor").build()));
+
+        assertThat(userService.findUsers(UserFilter.builder().build())).isSameAs(page);
+        assertThat(userService.getListCircuitBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void findAllUsers_poolSaturated_shouldShedWithoutCountingFailure() throws Exception {
+        ResilienceProperties properties = new ResilienceProperties();
+        properties.setMaxConcurrentListReads(1);
+        ResilientUserService saturated = new ResilientUserService(delegate,
+                new CircuitBreaker(1, Duration.ofSeconds(10), clock::get),
+                new CircuitBreaker(1, Duration.ofSeconds(10), clock::get), properties);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.findAllUsers()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return Collections.emptyList();
+        });
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<UserDto>> first = caller.submit(() -> saturated.findAllUsers());
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+            assertThrows(ServiceBusyException.class, () -> saturated.findAllUsers());
+            release.countDown();
+
+            assertThat(first.get(1, TimeUnit.SECONDS)).isEmpty();
+            assertThat(saturated.getListCircuitBreakerState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        } finally {
+            caller.shutdownNow();
+            saturated.shutdown();
+        }
+    }
+
+    private <T> T slowly(T value) throws InterruptedException {
+        Thread.sleep(500);
+        return value;
+    }
+
+    private UserDto user(Long id, String lastName) {
+        return UserDto.builder()
+                .id(id)
+                .lastName(lastName)
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.splitter.userservice.service;
+
+import com.splitter.userservice.cache.ExpiringCache;
+import com.splitter.userservice.cache.InMemorySharedUserCache;
+import com.splitter.userservice.cache.InProcessCacheInvalidationBus;
+import com.splitter.userservice.cache.TwoTierUserCache;
+import com.splitter.userservice.model.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CachingUserServiceTests {
+
+    private UserService delegate;
+    private UserService userService;
+
+    @BeforeEach
+    public void setUp() {
+        delegate = mock(UserService.class);
+        userService = new CachingUserService(delegate, new TwoTierUserCache(
+                new ExpiringCache<>(Duration.ofSeconds(5), 100),
+                new InMemorySharedUserCache(Duration.ofMinutes(5), 100),
+                new InProcessCacheInvalidationBus()));
+    }
+
+    @Test
+    public void findUserById_calledTwice_shouldLoadUserOnce() {
+        when(delegate.findUserById(1L)).thenReturn(UserDto.builder().id(1L).username("b.artem").build());
+
+        userService.findUserById(1L);
+        UserDto result = userService.findUserById(1L);
+
+        verify(delegate, times(1)).findUserById(1L);
+        assertEquals("b.artem", result.getUsername());
+    }
+
+    @Test
+    public void findUserById_updatedWhileLoading_shouldNotCacheLoadedVersion() {
+        UserDto patch = UserDto.builder().lastName("Sushko").version(0L).build();
+        when(delegate.updateUser(1L, patch)).thenReturn(1L);
+        when(delegate.findUserById(1L))
+                .thenAnswer(invocation -> {
+                    // another request commits an update between this load's read and its put
+                    userService.updateUser(1L, patch);
+                    return UserDto.builder().id(1L).lastName("Baranovskyi").version(0L).build();
+                })
+                .thenReturn(UserDto.builder().id(1L).lastName("Sushko").version(1L).build());
+
+        userService.findUserById(1L);
+        UserDto result = userService.findUserById(1L);
+
+        verify(delegate, times(2)).findUserById(1L);
+        assertEquals("Sushko", result.getLastName());
+    }
+
+    @Test
+    public void createUser_userWithSameIdCached_shouldReloadUser() {
+        when(delegate.findUserById(1L)).thenReturn(UserDto.builder().id(1L).username("b.artem").build());
+        when(delegate.createUser(any(UserDto.class))).thenReturn(UserDto.builder().id(1L).build());
+
+        userService.findUserById(1L);
+        userService.createUser(UserDto.builder().username("b.artem").build());
+        userService.findUserById(1L);
+
+        verify(delegate, times(2)).findUserById(1L);
+    }
+}
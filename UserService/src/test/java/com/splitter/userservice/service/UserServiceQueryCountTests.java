@@ -0,0 +1,137 @@
+package com.splitter.userservice.service;
+
+import com.splitter.userservice.diagnostics.SqlStatementRecorder;
+import com.splitter.userservice.diagnostics.SqlStatistics;
+import com.splitter.userservice.exception.ResourceNotFoundException;
+import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.model.UserFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pins the number of SQL statements each {@link UserService} method issues, so that an
+ * extra round trip or an N+1 select fails the build.
+ */
+@SpringBootTest(properties = "userservice.diagnostics.sql.enabled=true")
+@Sql(value = {"/data/user-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(value = {"/data/delete-user-data.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class UserServiceQueryCountTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SqlStatementRecorder recorder;
+
+    @Test
+    public void findAllUsers_shouldIssueOneStatement() {
+        SqlStatistics statistics = recorder.capture(() -> userService.findAllUsers());
+
+        assertThat(statistics.getStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findUsers_shouldIssueOneStatementWithoutCount() {
+        UserFilter filter = UserFilter.builder().emailDomain("gmail.com").limit(1).build();
+
+        SqlStatistics statistics = recorder.capture(() -> userService.findUsers(filter));
+
+        assertThat(statistics.getStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findUserById_shouldIssueOneStatement() {
+        Long id = userService.findAllUsers().get(0).getId();
+
+        SqlStatistics statistics = recorder.capture(() -> userService.findUserById(id));
+
+        assertThat(statistics.getStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findUserById_userDoesNotExist_shouldIssueOneStatement() {
+        SqlStatistics statistics = recorder.capture(() ->
+                assertThrows(ResourceNotFoundException.class, () -> userService.findUserById(100500L)));
+
+        assertThat(statistics.getStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void createUser_shouldIssueTwoUniquenessChecksAndOneInsert() {
+        SqlStatistics statistics = recorder.capture(() -> userService.createUser(UserDto.builder()
+                .email("alex2549@gmail.com")
+                .username("b.alex")
+                .firstName("Alex")
+                .lastName("Baranovskyi")
+                .dateOfBirth(LocalDate.of(1994, 8, 14))
+                .build()));
+
+        assertThat(statistics.getStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void createUser_shouldRecordOneHibernateSessionAndItsFlush() {
+        SqlStatistics statistics = recorder.capture(() -> userService.createUser(UserDto.builder()
+                .email("alex2549@gmail.com")
+                .username("b.alex")
+                .firstName("Alex")
+                .lastName("Baranovskyi")
+                .dateOfBirth(LocalDate.of(1994, 8, 14))
+                .build()));
+
+        assertThat(statistics.getSessionCount()).isEqualTo(1);
+        assertThat(statistics.getFlushCount()).isGreaterThanOrEqualTo(1);
+        assertThat(statistics.getFlushedEntityCount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void getUserStatistics_shouldIssueNoStatement() {
+        SqlStatistics statistics = recorder.capture(() -> userService.getUserStatistics());
+
+        assertThat(statistics.getStatementCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void updateUser_dateOfBirth_shouldReadPreviousDateOfBirthAndIssueOneUpdate() {
+        UserDto user = userService.findAllUsers().get(0);
+
+        SqlStatistics statistics = recorder.capture(() -> userService.updateUser(user.getId(), UserDto.builder()
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .version(user.getVersion())
+                .build()));
+
+        assertThat(statistics.getStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void updateUser_nameOnly_shouldIssueOneUpdate() {
+        UserDto user = userService.findAllUsers().get(0);
+
+        SqlStatistics statistics = recorder.capture(() -> userService.updateUser(user.getId(), UserDto.builder()
+                .lastName("Sushko")
+                .version(user.getVersion())
+                .build()));
+
+        assertThat(statistics.getStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateUser_usernameAndEmail_shouldIssueTwoUniquenessChecksAndOneUpdate() {
+        UserDto user = userService.findAllUsers().get(0);
+
+        SqlStatistics statistics = recorder.capture(() -> userService.updateUser(user.getId(), UserDto.builder()
+                .username("b.alex")
+                .email("alex2549@gmail.com")
+                .version(user.getVersion())
+                .build()));
+
+        assertThat(statistics.getStatementCount()).isEqualTo(3);
+    }
+}
@@ -3,13 +3,17 @@ package com.splitter.userservice.service;
 import com.splitter.userservice.domain.User;
 import com.splitter.userservice.exception.RecordConflictException;
 import com.splitter.userservice.exception.ResourceNotFoundException;
+import com.splitter.userservice.exception.StaleRecordException;
 import com.splitter.userservice.model.UserDto;
+import com.splitter.userservice.model.UserStatisticsDto;
 import com.splitter.userservice.repository.UserRepository;
+import com.splitter.userservice.statistics.UserStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -21,12 +25,14 @@ import static org.mockito.Mockito.*;
 public class UserServiceTests {
 
     private UserRepository userRepository;
+    private UserStatistics userStatistics;
     private UserService userService;
 
     @BeforeEach
     public void setUp() {
         userRepository = mock(UserRepository.class);
-        userService = new UserServiceImpl(userRepository);
+        userStatistics = new UserStatistics();
+        userService = new UserServiceImpl(userRepository, userStatistics);
     }
 
     @Test
@@ -131,16 +137,83 @@ public class UserServiceTests {
 
     @Test
     public void createUser_emailExists_shouldThrowRecordConflictException() throws Exception {
-        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+        when(userRepository.existsByEmailKey(anyString())).thenReturn(true);
         assertThrows(RecordConflictException.class, () -> userService
                 .createUser(UserDto.builder().email("test").build()));
     }
 
     @Test
     public void createUser_usernameExists_shouldThrowRecordConflictException() throws Exception {
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.existsByUsername(anyString())).thenReturn(true);
+        when(userRepository.existsByEmailKey(anyString())).thenReturn(false);
+        when(userRepository.existsByUsernameKey(anyString())).thenReturn(true);
         assertThrows(RecordConflictException.class, () -> userService
                 .createUser(UserDto.builder().email("test").username("test").build()));
     }
+
+    @Test
+    public void updateUser_versionMatches_shouldReturnNextVersion() {
+        when(userRepository.updateNonNullFields(eq(1L), eq(3L), any(User.class))).thenReturn(1);
+
+        long version = userService.updateUser(1L, UserDto.builder().lastName("Sushko").version(3L).build());
+
+        assertEquals(4L, version);
+        verify(userRepository, never()).existsByEmailKeyAndIdNot(anyString(), anyLong());
+        verify(userRepository, never()).existsByUsernameKeyAndIdNot(anyString(), anyLong());
+    }
+
+    @Test
+    public void updateUser_dateOfBirthChanged_shouldMoveUserToNewAgeBucket() {
+        userStatistics.recordCreated(null, LocalDate.of(1994, 8, 13));
+        when(userRepository.findDateOfBirthByIdAndVersion(1L, 3L)).thenReturn(Optional.of(LocalDate.of(1994, 8, 13)));
+        when(userRepository.updateNonNullFields(eq(1L), eq(3L), any(User.class))).thenReturn(1);
+
+        userService.updateUser(1L, UserDto.builder().dateOfBirth(LocalDate.of(1950, 1, 1)).version(3L).build());
+
+        UserStatisticsDto statistics = userService.getUserStatistics();
+        assertThat(statistics.getAgeDistribution().get("65+")).isEqualTo(1);
+        assertThat(statistics.getAgeDistribution().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateUser_versionDoesNotMatch_shouldThrowStaleRecordException() {
+        when(userRepository.updateNonNullFields(eq(1L), eq(3L), any(User.class))).thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        StaleRecordException exception = assertThrows(StaleRecordException.class,
+                () -> userService.updateUser(1L, UserDto.builder().lastName("Sushko").version(3L).build()));
+
+        assertThat(exception.getMessage()).isEqualTo("User 1 has been modified by another request.");
+    }
+
+    @Test
+    public void updateUser_userDoesNotExist_shouldThrowResourceNotFoundException() {
+        when(userRepository.updateNonNullFields(eq(100L), eq(0L), any(User.class))).thenReturn(0);
+        when(userRepository.existsById(100L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> userService.updateUser(100L, UserDto.builder().lastName("Sushko").version(0L).build()));
+    }
+
+    @Test
+    public void updateUser_emailTakenByOtherUser_shouldThrowRecordConflictException() {
+        when(userRepository.existsByEmailKeyAndIdNot("artem2549@gmail.com", 2L)).thenReturn(true);
+
+        assertThrows(RecordConflictException.class, () -> userService
+                .updateUser(2L, UserDto.builder().email("artem2549@gmail.com").version(0L).build()));
+        verify(userRepository, never()).updateNonNullFields(anyLong(), anyLong(), any(User.class));
+    }
+
+    @Test
+    public void createUser_validDto_shouldRecordUserInStatistics() {
+        when(userRepository.save(any(User.class))).thenReturn(User.builder()
+                .id(1L)
+                .dateOfBirth(LocalDate.of(1994, 8, 13))
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        userService.createUser(UserDto.builder().email("artem2549@gmail.com").username("b.artem").build());
+
+        assertEquals(1L, userService.getUserStatistics().getTotalUsers());
+        assertEquals(1L, userService.getUserStatistics().getSignupsPerDay().get(LocalDate.now().toString()));
+    }
 }
@@ -0,0 +1,86 @@
+package com.splitter.userservice.statistics;
+
+import com.splitter.userservice.model.UserStatisticsDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserStatisticsTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2019, 12, 18);
+
+    private UserStatistics userStatistics = new UserStatistics();
+
+    @Test
+    public void snapshot_usersRecorded_shouldCountSignupsPerDayAndAgeBuckets() {
+        userStatistics.recordCreated(TODAY.atTime(10, 0), LocalDate.of(1994, 8, 13));
+        userStatistics.recordCreated(TODAY.atTime(11, 0), LocalDate.of(2005, 1, 1));
+        userStatistics.recordCreated(TODAY.minusDays(1).atTime(9, 0), LocalDate.of(1950, 1, 1));
+
+        UserStatisticsDto result = userStatistics.snapshot(TODAY);
+
+        assertThat(result.getTotalUsers()).isEqualTo(3);
+        assertThat(result.getSignupsPerDay()).hasSize(UserStatistics.SIGNUP_DAYS);
+        assertThat(result.getSignupsPerDay().get("2019-12-18")).isEqualTo(2);
+        assertThat(result.getSignupsPerDay().get("2019-12-17")).isEqualTo(1);
+        assertThat(result.getAgeDistribution().get("0-17")).isEqualTo(1);
+        assertThat(result.getAgeDistribution().get("25-34")).isEqualTo(1);
+        assertThat(result.getAgeDistribution().get("65+")).isEqualTo(1);
+    }
+
+    @Test
+    public void snapshot_birthdayLaterThisYear_shouldUseExactAge() {
+        userStatistics.recordCreated(TODAY.atTime(10, 0), LocalDate.of(2001, 12, 19));
+        userStatistics.recordCreated(TODAY.atTime(10, 0), LocalDate.of(2001, 12, 18));
+
+        UserStatisticsDto result = userStatistics.snapshot(TODAY);
+
+        assertThat(result.getAgeDistribution().get("0-17")).isEqualTo(1);
+        assertThat(result.getAgeDistribution().get("18-24")).isEqualTo(1);
+    }
+
+    @Test
+    public void recordDateOfBirthChanged_shouldMoveUserBetweenAgeBuckets() {
+        userStatistics.recordCreated(TODAY.atTime(10, 0), LocalDate.of(1994, 8, 13));
+
+        userStatistics.recordDateOfBirthChanged(LocalDate.of(1994, 8, 13), LocalDate.of(1950, 1, 1));
+
+        UserStatisticsDto result = userStatistics.snapshot(TODAY);
+        assertThat(result.getTotalUsers()).isEqualTo(1);
+        assertThat(result.getAgeDistribution().get("25-34")).isEqualTo(0);
+        assertThat(result.getAgeDistribution().get("65+")).isEqualTo(1);
+    }
+
+    @Test
+    public void reset_aggregatesFromDatabase_shouldReplaceCounters() {
+        userStatistics.recordCreated(TODAY.atTime(10, 0), LocalDate.of(1994, 8, 13));
+
+        userStatistics.reset(10, Collections.singletonMap(TODAY, 4L),
+                Collections.singletonMap(LocalDate.of(1994, 8, 13), 10L));
+
+        UserStatisticsDto result = userStatistics.snapshot(TODAY);
+        assertThat(result.getTotalUsers()).isEqualTo(10);
+        assertThat(result.getSignupsPerDay().get("2019-12-18")).isEqualTo(4);
+        assertThat(result.getAgeDistribution().get("25-34")).isEqualTo(10);
+    }
+
+    @Test
+    public void reset_changesRecordedDuringRebuild_shouldBeAddedToAggregates() {
+        userStatistics.recordCreated(TODAY.atTime(9, 0), LocalDate.of(2005, 1, 1));
+        userStatistics.beginRebuild();
+        userStatistics.recordCreated(TODAY.atTime(10, 0), LocalDate.of(1994, 8, 13));
+
+        userStatistics.reset(10, Collections.singletonMap(TODAY, 4L),
+                Collections.singletonMap(LocalDate.of(1950, 1, 1), 10L));
+
+        UserStatisticsDto result = userStatistics.snapshot(TODAY);
+        assertThat(result.getTotalUsers()).isEqualTo(11);
+        assertThat(result.getSignupsPerDay().get("2019-12-18")).isEqualTo(5);
+        assertThat(result.getAgeDistribution().get("0-17")).isEqualTo(0);
+        assertThat(result.getAgeDistribution().get("25-34")).isEqualTo(1);
+        assertThat(result.getAgeDistribution().get("65+")).isEqualTo(10);
+    }
+}
@@ -2,8 +2,16 @@ DROP TABLE IF EXISTS USERS ;
 CREATE TABLE USERS (
     ID BIGINT AUTO_INCREMENT PRIMARY KEY,
     USERNAME VARCHAR(50) NOT NULL,
+    USERNAME_KEY VARCHAR(50) NOT NULL UNIQUE,
     EMAIL VARCHAR(50) NOT NULL,
+    EMAIL_KEY VARCHAR(50) NOT NULL UNIQUE,
+    EMAIL_DOMAIN VARCHAR(50),
     FIRST_NAME VARCHAR(50) NOT NULL,
     LAST_NAME VARCHAR(50) NOT NULL,
-    DATE_OF_BIRTH DATE NOT NULL
-);
\ No newline at end of file
+    DATE_OF_BIRTH DATE NOT NULL,
+    CREATED_AT TIMESTAMP,
+    VERSION BIGINT DEFAULT 0 NOT NULL
+);
+CREATE INDEX IDX_USERS_LAST_NAME ON USERS (LAST_NAME, ID);
+CREATE INDEX IDX_USERS_EMAIL_DOMAIN ON USERS (EMAIL_DOMAIN, ID);
+CREATE INDEX IDX_USERS_DATE_OF_BIRTH ON USERS (DATE_OF_BIRTH, ID);
\ No newline at end of file
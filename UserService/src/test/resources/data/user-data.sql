@@ -1,8 +1,8 @@
-INSERT INTO USERS (USERNAME, EMAIL, FIRST_NAME, LAST_NAME, DATE_OF_BIRTH)
+INSERT INTO USERS (USERNAME, USERNAME_KEY, EMAIL, EMAIL_KEY, EMAIL_DOMAIN, FIRST_NAME, LAST_NAME, DATE_OF_BIRTH)
 VALUES (
-    'b.artem', 'artem2549@gmail.com', 'Artem', 'Baranovskyi', PARSEDATETIME('1994-08-13', 'yyyy-MM-dd')
+    'b.artem', 'b.artem', 'artem2549@gmail.com', 'artem2549@gmail.com', 'gmail.com', 'Artem', 'Baranovskyi', PARSEDATETIME('1994-08-13', 'yyyy-MM-dd')
 );
-INSERT INTO USERS (USERNAME, EMAIL, FIRST_NAME, LAST_NAME, DATE_OF_BIRTH)
+INSERT INTO USERS (USERNAME, USERNAME_KEY, EMAIL, EMAIL_KEY, EMAIL_DOMAIN, FIRST_NAME, LAST_NAME, DATE_OF_BIRTH)
 VALUES (
-    's.artem', 's.artem2549@gmail.com', 'Artem', 'Sushko', PARSEDATETIME('1994-09-13', 'yyyy-MM-dd')
+    's.artem', 's.artem', 's.artem2549@gmail.com', 's.artem2549@gmail.com', 'gmail.com', 'Artem', 'Sushko', PARSEDATETIME('1994-09-13', 'yyyy-MM-dd')
 );
\ No newline at end of file
@@ -0,0 +1,94 @@
+#!/usr/bin/env bash
+
+# Measures time-to-first-successful GET /users/{id} and steady-state RSS of the boot jar.
+#
+# usage: startup-benchmark.sh <path-to-jar> [spring-profiles] [port]
+#
+# $EXTRA_JAVA_OPTS is appended to the JVM options, e.g. to apply the heap limits of a manifest.
+# The results are also written to $RESULTS_FILE when set. The run fails when they exceed
+# $MAX_TIME_TO_FIRST_GET_MS or $MAX_RSS_KB, if those are set.
+#
+# The first run creates an AppCDS archive next to the jar and every following run maps it
+# (-XX:SharedArchiveFile). On JDK 13+ the archive is dumped when the first run exits
+# (-XX:ArchiveClassesAtExit). On JDK 11 and 12 the first run records the loaded classes
+# (-XX:DumpLoadedClassList) and the archive is dumped from that list afterwards (-Xshare:dump).
+# Those releases only archive classes of the built-in loaders, i.e. the JDK and the Spring Boot
+# launcher, not the classes inside the nested BOOT-INF jars.
+
+set -e -u
+
+jar=$1
+profiles=${2:-faststart}
+port=${3:-8080}
+base_url="http://localhost:${port}"
+cds_archive="${jar%.jar}.jsa"
+cds_class_list="${jar%.jar}.classlist"
+java_opts="-XX:TieredStopAtLevel=1 -XX:+UseSerialGC -Xss256k -XX:ReservedCodeCacheSize=32M ${EXTRA_JAVA_OPTS:-}"
+
+java_major=$(java -version 2>&1 | awk -F'"' '/version/ {split($2, v, "."); print (v[1] == "1") ? v[2] : v[1]}')
+if [ -f "$cds_archive" ]; then
+    java_opts="$java_opts -XX:SharedArchiveFile=$cds_archive"
+elif [ "$java_major" -ge 13 ]; then
+    java_opts="$java_opts -XX:ArchiveClassesAtExit=$cds_archive"
+else
+    java_opts="$java_opts -XX:DumpLoadedClassList=$cds_class_list"
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+start=$(now_ms)
+java $java_opts -jar "$jar" --spring.profiles.active="$profiles" --server.port="$port" > startup-benchmark.log 2>&1 &
+pid=$!
+trap 'kill $pid 2>/dev/null || true' EXIT
+
+user_id=""
+until [ -n "$user_id" ]; do
+    if ! kill -0 $pid 2>/dev/null; then
+        echo "application exited during startup, see startup-benchmark.log" >&2
+        exit 1
+    fi
+    user_id=$(curl -s -f -X POST "${base_url}/users" -H 'Content-Type: application/json' \
+        -d "{\"username\":\"bench.${start}\",\"email\":\"bench.${start}@splitter.com\",\"firstName\":\"Bench\",\"lastName\":\"Mark\",\"dateOfBirth\":\"1990-01-01\"}" \
+        | sed -n 's/.*"id":\([0-9]*\).*/\1/p') || true
+    [ -n "$user_id" ] || sleep 0.05
+done
+curl -s -f "${base_url}/users/${user_id}" > /dev/null
+ready=$(now_ms)
+
+for i in $(seq 1 1000); do
+    curl -s -f "${base_url}/users/${user_id}" > /dev/null
+done
+rss_kb=$(awk '/VmRSS/ {print $2}' /proc/$pid/status)
+
+time_to_first_get_ms=$((ready - start))
+results="java-version=${java_major}
+spring-profiles=${profiles}
+time-to-first-GET-ms=${time_to_first_get_ms}
+steady-state-rss-kb=${rss_kb}"
+echo "$results"
+if [ -n "${RESULTS_FILE:-}" ]; then
+    echo "$results" > "$RESULTS_FILE"
+fi
+
+kill -TERM $pid
+wait $pid || true
+
+if [ ! -f "$cds_archive" ] && [ -f "$cds_class_list" ]; then
+    # same class path as -jar, otherwise the archive is rejected when it is mapped
+    java -Xshare:dump -XX:SharedClassListFile="$cds_class_list" -XX:SharedArchiveFile="$cds_archive" \
+        -cp "$jar" >> startup-benchmark.log 2>&1
+fi
+
+over_budget=""
+if [ -n "${MAX_TIME_TO_FIRST_GET_MS:-}" ] && [ "$time_to_first_get_ms" -gt "$MAX_TIME_TO_FIRST_GET_MS" ]; then
+    over_budget="time-to-first-GET-ms ${time_to_first_get_ms} > ${MAX_TIME_TO_FIRST_GET_MS}"
+fi
+if [ -n "${MAX_RSS_KB:-}" ] && [ "$rss_kb" -gt "$MAX_RSS_KB" ]; then
+    over_budget="${over_budget:+$over_budget, }steady-state-rss-kb ${rss_kb} > ${MAX_RSS_KB}"
+fi
+if [ -n "$over_budget" ]; then
+    echo "over budget: $over_budget" >&2
+    exit 1
+fi